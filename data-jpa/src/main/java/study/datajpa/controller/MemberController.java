@@ -4,18 +4,31 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import study.datajpa.dto.MemberChangesDto;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.service.MemberChangeService;
+import study.datajpa.service.MemberService;
+
+import java.time.LocalDateTime;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberService memberService;
+    private final MemberChangeService memberChangeService;
 
 
     //    @PathVariable("id")로 id만 받아옴.
@@ -23,8 +36,7 @@ public class MemberController {
     //    예외처리 필요 (.orElseThrow() 등).
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+        return memberService.findUsername(id);
     }
 
 
@@ -32,19 +44,39 @@ public class MemberController {
     //    이 기능은 Spring이 MemberRepository.findById(id)를 자동으로 호출해주는 기능
     //    이걸 "도메인 클래스 컨버터 (Domain Class Converter)" 라고 함.
     //    도메인 클래스 컨버터로 엔티티를 파라미터로 받으면 단순 조회용으로만 사용해야 한다.
+    //    OSIV off: 컨버터가 조회한 엔티티는 이미 준영속 상태이므로 team 같은 지연 로딩 필드는 쓰면 안 된다.
     @GetMapping("/members2/{id}")
     public String findMember2(@PathVariable("id") Member member) {
         return member.getUsername();
     }
 
+    //    조건부 GET: If-None-Match가 현재 버전과 같으면 집계 쿼리 한 번만 실행하고 304 반환 (엔티티 조회/직렬화 없음)
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size=5) Pageable pageable) {
+    public Page<MemberDto> list(@PageableDefault(size=5) Pageable pageable, WebRequest webRequest) {
+        if (webRequest.checkNotModified(memberService.findMembersVersion())) {
+            return null;
+        }
 //        Page<Member> page = memberRepository.findAll(pageable);
 //        //V5 방식
 //        Page<MemberDto> map = page.map(member -> new MemberDto(member.getId(), member.getUsername(), null));
 //        return map;
-            return memberRepository.findAll(pageable)
-                    .map(MemberDto::new);
+            return memberService.findMembers(pageable);
+    }
+
+    //    변경 피드: since(워터마크) 이후 추가/수정/삭제된 회원을 (시각, id) 순으로 반환
+    //    응답의 nextCursor를 다음 요청에 넘기면 이어서 받음 -> 미러는 전체 재조회 없이 동기화 가능
+    @GetMapping("/members/changes")
+    public MemberChangesDto changes(
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+        return memberChangeService.findChanges(since, cursor, size);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(IllegalArgumentException e) {
+        return e.getMessage();
     }
 
 //    @PostConstruct
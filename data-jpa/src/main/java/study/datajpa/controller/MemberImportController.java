@@ -0,0 +1,58 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.MemberImportJob;
+import study.datajpa.service.MemberImportService;
+import study.datajpa.service.MemberImportService.Format;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberImportController {
+
+    private final MemberImportService memberImportService;
+
+    //    요청 본문(InputStream)을 그대로 넘겨서 임시 파일로 받음. 업로드 전체를 메모리에 버퍼링하지 않음
+    //    DB 쓰기는 비동기 작업 -> 202 + Location(작업 조회 URI), 이미 여러 업로드가 진행 중이면 503
+    //    curl -X POST --data-binary @members.csv -H "Content-Type: text/csv" localhost:8080/members/import
+    @PostMapping(value = "/members/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<MemberImportJob> importMembers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                         InputStream body) {
+        Format format = contentType.isCompatibleWith(MediaType.valueOf("text/csv")) ? Format.CSV : Format.NDJSON;
+        MemberImportJob job = memberImportService.importMembers(body, format);
+        return ResponseEntity.accepted()
+                .location(URI.create("/members/import/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/members/import")
+    public List<MemberImportJob> importJobs() {
+        return memberImportService.findJobs();
+    }
+
+    @GetMapping("/members/import/{jobId}")
+    public ResponseEntity<MemberImportJob> importJob(@PathVariable("jobId") Long jobId) {
+        return ResponseEntity.of(memberImportService.findJob(jobId));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String busy(RejectedExecutionException e) {
+        return e.getMessage();
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 회원 변경 피드 한 건
+ * - deleted = true 면 tombstone (memberId, changedDate만 채워짐)
+ */
+@Data
+public class MemberChangeDto {
+
+    private Long memberId;
+    private String username;
+    private int age;
+    private String teamName;
+    private LocalDateTime changedDate;
+    private boolean deleted;
+
+    public MemberChangeDto(Long memberId, String username, int age, String teamName, LocalDateTime changedDate) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.teamName = teamName;
+        this.changedDate = changedDate;
+    }
+
+    public MemberChangeDto(Long memberId, LocalDateTime changedDate) {
+        this.memberId = memberId;
+        this.changedDate = changedDate;
+        this.deleted = true;
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+//변경 피드 응답: 다음 요청에 nextCursor를 그대로 넘기면 이어서 받음
+@Data
+public class MemberChangesDto {
+
+    private List<MemberChangeDto> changes;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public MemberChangesDto(List<MemberChangeDto> changes, String nextCursor, boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+}
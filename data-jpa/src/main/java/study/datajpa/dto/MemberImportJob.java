@@ -0,0 +1,58 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원 업로드 작업 한 건의 진행 상황/처리량
+ * - 파싱 스레드와 writer 스레드가 동시에 갱신하므로 카운터는 Atomic으로 관리
+ * - GET /members/import/{jobId} 로 진행 중에도 조회 가능
+ */
+@Getter
+public class MemberImportJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final Long id;
+    private final String format;
+    private final Instant startedAt = Instant.now();
+    private volatile Instant finishedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile String error;
+
+    private final AtomicLong parsed = new AtomicLong();   //큐에 넣은 행
+    private final AtomicLong rejected = new AtomicLong(); //형식이 잘못되어 버린 행
+    private final AtomicLong written = new AtomicLong();  //커밋된 행
+    private final AtomicLong batches = new AtomicLong();  //커밋된 배치 수
+    private final AtomicLong teamsCreated = new AtomicLong();
+
+    public MemberImportJob(Long id, String format) {
+        this.id = id;
+        this.format = format;
+    }
+
+    public long getElapsedMillis() {
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        return Duration.between(startedAt, end).toMillis();
+    }
+
+    //커밋 기준 초당 처리 행 수
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : written.get() * 1000.0 / elapsed;
+    }
+
+    public void complete() {
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(Throwable cause) {
+        this.finishedAt = Instant.now();
+        this.error = cause.getMessage();
+        this.status = Status.FAILED;
+    }
+}
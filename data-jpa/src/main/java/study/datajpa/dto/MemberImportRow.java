@@ -0,0 +1,24 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회원 업로드(CSV/NDJSON) 한 줄
+ * - CSV: username,age,teamName
+ * - NDJSON: {"username":"...","age":10,"teamName":"..."}
+ */
+@Data
+@NoArgsConstructor
+public class MemberImportRow {
+
+    private String username;
+    private int age;
+    private String teamName; //없으면 팀 없이 저장
+
+    public MemberImportRow(String username, int age, String teamName) {
+        this.username = username;
+        this.age = age;
+        this.teamName = teamName;
+    }
+}
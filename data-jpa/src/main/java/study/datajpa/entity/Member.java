@@ -12,6 +12,11 @@ import lombok.*;
         name="Member.findByUsername",
         query="select m from Member m where m.username = :username")
 @NamedEntityGraph(name = "Member.all",attributeNodes = @NamedAttributeNode("team"))
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"), //findByUsername 계열, 네이티브 쿼리
+        @Index(name = "idx_member_age", columnList = "age"), //findByPage, totalCount, bulkAgePlus
+        @Index(name = "idx_member_last_modified_date", columnList = "last_modified_date, member_id") //목록 ETag max() 집계 + 변경 피드 키셋
+})
 public class Member extends BaseEntity{
     @Id @GeneratedValue
     @Column(name = "member_id")
@@ -38,7 +43,9 @@ public class Member extends BaseEntity{
         }
     }
     public void changeTeam(Team team) {
-        this.team = team;
+        //컬렉션에 먼저 추가하고 필드를 바꿈. 바이트코드 향상(association management)이 켜져 있으면
+        //필드 대입 시점에 이전 팀에서 제거 + 새 팀에 추가(이미 있으면 생략)를 해주므로 중복 추가되지 않음
         team.getMembers().add(this);
+        this.team = team;
     }
 }
\ No newline at end of file
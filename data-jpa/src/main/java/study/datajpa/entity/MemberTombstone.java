@@ -0,0 +1,31 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 삭제된 회원 기록 (변경 피드에서 삭제를 전달하기 위한 tombstone)
+ * - MemberTombstoneListener가 Member 삭제 트랜잭션 커밋 직전에 같은 트랜잭션으로 insert
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_member_tombstone_deleted_date", columnList = "deleted_date, member_id"))
+public class MemberTombstone {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @Column(name = "deleted_date", nullable = false)
+    private LocalDateTime deletedDate;
+
+    public MemberTombstone(Long memberId, LocalDateTime deletedDate) {
+        this.memberId = memberId;
+        this.deletedDate = deletedDate;
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.entity;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Member가 삭제되면 같은 트랜잭션 안에서 member_tombstone에 기록
+ * - flush 도중에는 쿼리를 실행할 수 없으므로 커밋 직전(before transaction completion)에 insert
+ * - 벌크 delete 쿼리(JPQL/네이티브)는 이벤트가 발생하지 않으므로 tombstone이 남지 않음
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberTombstoneListener implements PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        Object memberId = event.getId();
+        LocalDateTime deletedDate = LocalDateTime.now();
+        event.getSession().getActionQueue().registerProcess(session ->
+                session.createNativeMutationQuery(
+                                "insert into member_tombstone (member_id, deleted_date) values (:memberId, :deletedDate)")
+                        .setParameter("memberId", memberId)
+                        .setParameter("deletedDate", deletedDate)
+                        .executeUpdate());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
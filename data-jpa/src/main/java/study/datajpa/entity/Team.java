@@ -10,7 +10,8 @@ import java.util.List;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
-public class Team {
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name")) //findFirstByName (업로드 시 팀 이름 -> id)
+public class Team extends BaseTimeEntity { //팀 이름 변경도 회원 목록 ETag에 반영되도록 수정 시각 관리
     @Id @GeneratedValue
     @Column(name = "team_id")
     private Long id;
@@ -0,0 +1,69 @@
+package study.datajpa.entity;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Team 이름이 바뀌면 같은 트랜잭션 안에서 그 팀 회원들의 last_modified_date를 갱신
+ * - 변경 피드(MemberChangeService)는 회원 행의 수정 시각만 보므로, 갱신하지 않으면 팀 이름이 예전 값으로 남음
+ * - MemberTombstoneListener처럼 커밋 직전(before transaction completion)에 update
+ * - 벌크 update 쿼리로 바꾼 팀 이름은 이벤트가 발생하지 않으므로 반영되지 않음
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamRenameListener implements PostUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void register() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_UPDATE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Team) || !nameChanged(event)) {
+            return;
+        }
+        Object teamId = event.getId();
+        LocalDateTime modifiedDate = LocalDateTime.now();
+        event.getSession().getActionQueue().registerProcess(session ->
+                session.createNativeMutationQuery(
+                                "update member set last_modified_date = :modifiedDate where team_id = :teamId")
+                        .setParameter("modifiedDate", modifiedDate)
+                        .setParameter("teamId", teamId)
+                        .executeUpdate());
+    }
+
+    private static boolean nameChanged(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true; //알 수 없으면 갱신
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if ("name".equals(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,148 @@
+package study.datajpa.monitoring;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 지연 시간 기울기(gradient)로 동시 실행 한도를 조절하는 리미터 (엔드포인트 그룹마다 하나)
+ * - 요청이 끝날 때마다 지연 시간을 샘플로 받음
+ *   longRtt(긴 지수 이동 평균) / 이번 지연 시간 = gradient
+ *   -> 지연이 평소보다 늘면 한도를 비례해서 줄이고, 평소 수준이면 sqrt(limit)만큼 늘림
+ * - 실패(5xx, 예외)는 한도를 곱셈으로 줄임 (AIMD의 MD)
+ * - 한도의 절반도 안 쓰고 있을 때는 늘리지 않음 (부하가 없어서 빠른 것뿐이라 신호가 아님)
+ * - 한도가 차면 최대 maxQueue개까지 queueTimeout 동안 대기, 그 외는 바로 거절
+ * - querydsl/data-jpa 모듈에 같은 클래스가 있음 (모듈 간 공유 라이브러리가 없어서 복사, 패키지 선언만 다름). 수정할 때 함께 바꿀 것
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;  //지연이 평소의 1.5배까지는 한도를 줄이지 않음
+    private static final double LONG_RTT_WEIGHT = 0.05;
+    private static final double DROP_DECREASE = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private double longRttNanos;
+    private int inFlight;
+    private int queued;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, long queueTimeoutNanos) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeoutNanos;
+    }
+
+    /**
+     * @return 들어왔으면 true (끝나면 반드시 release). 한도와 대기열이 모두 찼거나 대기 시간을 넘기면 false
+     */
+    public boolean acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                return true;
+            }
+            if (queued >= maxQueue) {
+                return false;
+            }
+            queued++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param rttNanos 요청 처리 시간
+     * @param dropped  실패(5xx, 예외)로 끝났으면 true
+     */
+    public void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int before = currentLimit();
+            boolean saturated = inFlight >= limit / 2;
+            inFlight--;
+            if (dropped) {
+                limit = Math.max(minLimit, limit * DROP_DECREASE);
+            } else if (rttNanos > 0) {
+                sample(rttNanos, saturated);
+            }
+            if (currentLimit() > before) {
+                available.signalAll();
+            } else {
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sample(long rttNanos, boolean saturated) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos = longRttNanos * (1 - LONG_RTT_WEIGHT) + rttNanos * LONG_RTT_WEIGHT;
+            //부하가 빠지고 지연이 훨씬 짧아졌으면 평균도 빨리 따라 내려감
+            if (longRttNanos > rttNanos * 2) {
+                longRttNanos *= 0.95;
+            }
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        if (gradient >= 1.0 && !saturated) {
+            return;
+        }
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
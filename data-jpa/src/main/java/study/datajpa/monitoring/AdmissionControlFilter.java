@@ -0,0 +1,154 @@
+package study.datajpa.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DB를 쓰는 엔드포인트 그룹별 동시 실행 수 제한 (AdaptiveConcurrencyLimiter)
+ * - 한도를 넘는 요청은 잠깐 대기열에서 기다리고, 그래도 자리가 없으면 바로 503 + Retry-After
+ *   (커넥션 풀/톰캣 스레드가 다 찬 뒤 전부 타임아웃 나는 대신 일부를 빠르게 거절)
+ * - 비동기 응답은 async가 끝날 때 반납
+ * - 메트릭: admission.limit / admission.in_flight / admission.queued{group}, admission.rejected{group}
+ * - 다른 필터보다 먼저 실행되도록 @Order(0) (대기 시간이 커넥션 점유 시간, 쿼리 예산에 들어가지 않게)
+ * - querydsl/data-jpa 모듈에 같은 클래스가 있음 (모듈 간 공유 라이브러리가 없어서 복사). groupOf 본문(그룹 나누기)만 다르고 나머지는 같게 유지
+ */
+@Component
+@Order(0)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final Duration queueTimeout;
+
+    public AdmissionControlFilter(MeterRegistry meterRegistry,
+                                  @Value("${admission.enabled:true}") boolean enabled,
+                                  @Value("${admission.initial-limit:20}") int initialLimit,
+                                  @Value("${admission.min-limit:2}") int minLimit,
+                                  @Value("${admission.max-limit:200}") int maxLimit,
+                                  @Value("${admission.max-queue:50}") int maxQueue,
+                                  @Value("${admission.queue-timeout:50ms}") Duration queueTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.queueTimeout = queueTimeout;
+    }
+
+    /**
+     * MemberController 엔드포인트 + 업로드
+     * - 업로드(POST /members/import)는 본문을 다 받을 때까지 요청 스레드를 잡으므로(DB 쓰기는 비동기 작업)
+     *   조회의 지연 시간 기준과 섞이지 않게 별도 그룹. 작업 조회(GET)는 메모리만 읽으므로 제외
+     */
+    static String groupOf(String method, String uri) {
+        if (uri.startsWith("/members/import")) {
+            return "POST".equals(method) ? "import" : null;
+        }
+        if (uri.equals("/members") || uri.startsWith("/members/") || uri.startsWith("/members2/")) {
+            return "members";
+        }
+        return null;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || groupOf(request.getMethod(), request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String group = groupOf(request.getMethod(), request.getRequestURI());
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(group, this::newLimiter);
+        if (!acquire(limiter)) {
+            meterRegistry.counter("admission.rejected", "group", group).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "overloaded");
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release(limiter, released, start, response.getStatus() >= 500);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        release(limiter, released, start, true);
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        release(limiter, released, start, true);
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release(limiter, released, start, failed || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    private static boolean acquire(AdaptiveConcurrencyLimiter limiter) {
+        try {
+            return limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void release(AdaptiveConcurrencyLimiter limiter, AtomicBoolean released, long start, boolean dropped) {
+        if (released.compareAndSet(false, true)) {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(String group) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, maxQueue, queueTimeout.toNanos());
+        Gauge.builder("admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("group", group).register(meterRegistry);
+        Gauge.builder("admission.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("group", group).register(meterRegistry);
+        Gauge.builder("admission.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .tag("group", group).register(meterRegistry);
+        return limiter;
+    }
+}
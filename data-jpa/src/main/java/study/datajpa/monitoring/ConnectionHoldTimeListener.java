@@ -0,0 +1,65 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.event.JdbcEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션을 풀에서 빌린 시점 ~ 반납(close) 시점까지의 점유 시간 측정
+ * - p6spy 스타터가 JdbcEventListener 빈을 자동으로 등록함
+ * - 커넥션마다 Timer(jdbc.connections.hold)에 기록 -> /actuator/metrics/jdbc.connections.hold (count, total, max)
+ * - 요청 단위 합계는 {@link ConnectionHoldTimeFilter}가 요청 스레드에 열어둔 누적기에 더함
+ */
+@Component
+public class ConnectionHoldTimeListener extends JdbcEventListener {
+
+    private static final ThreadLocal<long[]> REQUEST = new ThreadLocal<>(); //[0]=점유 시간(ns), [1]=커넥션 수
+
+    private final Map<Integer, Long> acquiredAt = new ConcurrentHashMap<>();
+    private final Timer holds;
+
+    public ConnectionHoldTimeListener(MeterRegistry meterRegistry) {
+        this.holds = Timer.builder("jdbc.connections.hold")
+                .description("Time a JDBC connection is held from pool checkout to close").register(meterRegistry);
+    }
+
+    @Override
+    public void onAfterGetConnection(ConnectionInformation connectionInformation, SQLException e) {
+        if (e == null) {
+            acquiredAt.put(connectionInformation.getConnectionId(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onAfterConnectionClose(ConnectionInformation connectionInformation, SQLException e) {
+        Long start = acquiredAt.remove(connectionInformation.getConnectionId());
+        if (start == null) {
+            return;
+        }
+        long held = System.nanoTime() - start;
+        holds.record(held, TimeUnit.NANOSECONDS);
+
+        long[] request = REQUEST.get();
+        if (request != null) {
+            request[0] += held;
+            request[1]++;
+        }
+    }
+
+    void beginRequest() {
+        REQUEST.set(new long[2]);
+    }
+
+    long[] endRequest() {
+        long[] request = REQUEST.get();
+        REQUEST.remove();
+        return request;
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+//GET /actuator/sqlsamples : SqlSampler가 보관한 느린/샘플링된 SQL (최신순)
+//querydsl/data-jpa 모듈에 같은 클래스가 있음 (SqlSampler와 함께 복사, 패키지 선언만 다름)
+@Component
+@Endpoint(id = "sqlsamples")
+@RequiredArgsConstructor
+public class SqlSampleEndpoint {
+
+    private final SqlSampler sqlSampler;
+
+    @ReadOperation
+    public List<SqlSampler.Sample> samples() {
+        return sqlSampler.samples();
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 항상 켜 둘 수 있는 SQL 관찰 (org.hibernate.SQL debug 로그 대신)
+ * - 모든 statement: 실행 시간만 Timer(sql.statements)에 기록
+ * - 느린 statement(slow-threshold 이상)와 sample-rate 비율로 뽑은 statement만 바인딩 값이 채워진 SQL을 만들어 보관
+ * - 보관은 고정 크기 링 버퍼 (락 없이 덮어씀, 오래된 것부터 사라짐) -> /actuator/sqlsamples
+ * - querydsl/data-jpa 모듈에 같은 클래스가 있음 (모듈 간 공유 라이브러리가 없어서 복사, 패키지 선언만 다름). 수정할 때 함께 바꿀 것
+ */
+@Component
+public class SqlSampler extends SimpleJdbcEventListener {
+
+    private final Timer statements;
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final AtomicReferenceArray<Sample> ring;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SqlSampler(MeterRegistry meterRegistry,
+                      @Value("${sql.sampling.slow-threshold:100ms}") Duration slowThreshold,
+                      @Value("${sql.sampling.sample-rate:0.001}") double sampleRate,
+                      @Value("${sql.sampling.capacity:256}") int capacity) {
+        this.statements = Timer.builder("sql.statements")
+                .description("JDBC statement execution time").register(meterRegistry);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1; //2의 거듭제곱으로 올림
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        statements.record(timeElapsedNanos, TimeUnit.NANOSECONDS);
+
+        boolean slow = timeElapsedNanos >= slowThresholdNanos;
+        if (!slow && e == null && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        Sample sample = new Sample(Instant.now(), timeElapsedNanos / 1_000_000.0,
+                slow ? "slow" : e != null ? "error" : "sampled",
+                statementInformation.getSqlWithValues(), e != null ? e.getMessage() : null);
+        ring.set((int) (sequence.getAndIncrement() & mask), sample);
+    }
+
+    /**
+     * @return 최근 보관된 샘플 (최신순)
+     */
+    public List<Sample> samples() {
+        long end = sequence.get();
+        long start = Math.max(0, end - ring.length());
+        List<Sample> result = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            Sample sample = ring.get((int) (i & mask));
+            if (sample != null) {
+                result.add(sample);
+            }
+        }
+        return result;
+    }
+
+    public record Sample(Instant at, double elapsedMillis, String reason, String sql, String error) {
+    }
+}
@@ -75,7 +75,7 @@ public class MemberJpaRepository {
 
     public int bulkAgePlus(int age) {
         return  em.createQuery(
-                "update Member m set m.age = m.age + 1" +
+                "update Member m set m.age = m.age + 1, m.lastModifiedDate = local datetime " + //auditing 대신 직접 갱신
                 "where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
@@ -2,13 +2,16 @@ package study.datajpa.repository;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import study.datajpa.dto.MemberChangeDto;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,6 +39,29 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    // 회원 목록 화면용 페이지 조회 (fetch plan: team은 left join으로 한 번에, 엔티티는 로딩하지 않음)
+    @Query(value = "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    // 회원 목록 ETag 계산용 집계 (엔티티 로딩 없이 count + 인덱스 max 조회)
+    // 목록에 팀 이름이 포함되므로 팀 수정 시각도 함께 본다
+    @Query("select count(*) as memberCount, max(m.lastModifiedDate) as memberLastModified, " +
+            "(select max(t.lastModifiedDate) from Team t) as teamLastModified from Member m")
+    MemberVersion findMemberVersion();
+
+    // (lastModifiedDate, id) 키셋 이후에 변경된 회원 (변경 피드용, idx_member_last_modified_date 사용)
+    @Query("select new study.datajpa.dto.MemberChangeDto(m.id, m.username, m.age, t.name, m.lastModifiedDate) " +
+            "from Member m left join m.team t " +
+            "where (m.lastModifiedDate > :date or (m.lastModifiedDate = :date and m.id > :id)) and m.lastModifiedDate < :until " +
+            "order by m.lastModifiedDate, m.id")
+    List<MemberChangeDto> findChangedAfter(@Param("date") LocalDateTime date, @Param("id") Long id,
+                                           @Param("until") LocalDateTime until, Limit limit);
+
+    // id로 username만 조회 (fetch plan: 스칼라 projection)
+    @Query("select m.username from Member m where m.id = :id")
+    Optional<String> findUsernameById(@Param("id") Long id);
+
     // 이름 리스트에 포함되는 Member 조회 (IN절 사용)
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") List<String> names);
@@ -58,8 +84,9 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     Page<Member> findMemberAllCountBy(Pageable pageable);
 
     // 조건에 따라 age를 +1 하는 벌크 수정 쿼리 (flush, clear 주의)
+    // 벌크 쿼리는 auditing을 거치지 않으므로 수정 시각을 직접 갱신 (변경 피드에 나오도록)
     @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update Member m set m.age = m.age + 1, m.lastModifiedDate = local datetime where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     // Member를 조회하면서 Team을 함께 가져오는 fetch join 쿼리
@@ -0,0 +1,21 @@
+package study.datajpa.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import study.datajpa.dto.MemberChangeDto;
+import study.datajpa.entity.MemberTombstone;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MemberTombstoneRepository extends JpaRepository<MemberTombstone, Long> {
+
+    // (deletedDate, memberId) 키셋 이후의 tombstone (idx_member_tombstone_deleted_date 사용)
+    @Query("select new study.datajpa.dto.MemberChangeDto(t.memberId, t.deletedDate) from MemberTombstone t " +
+            "where (t.deletedDate > :date or (t.deletedDate = :date and t.memberId > :id)) and t.deletedDate < :until " +
+            "order by t.deletedDate, t.memberId")
+    List<MemberChangeDto> findDeletedAfter(@Param("date") LocalDateTime date, @Param("id") Long id,
+                                           @Param("until") LocalDateTime until, Limit limit);
+}
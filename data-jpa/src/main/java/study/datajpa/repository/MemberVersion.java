@@ -0,0 +1,11 @@
+package study.datajpa.repository;
+
+import java.time.LocalDateTime;
+
+//회원 목록 응답의 버전(ETag) 계산용 집계 결과
+public interface MemberVersion {
+
+    long getMemberCount();
+    LocalDateTime getMemberLastModified();
+    LocalDateTime getTeamLastModified();
+}
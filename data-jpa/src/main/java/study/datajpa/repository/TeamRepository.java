@@ -3,7 +3,11 @@ package study.datajpa.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import study.datajpa.entity.Team;
 
+import java.util.Optional;
+
 //굳이 @Repository 안해줘도 알아서 인식함.
 public interface TeamRepository extends JpaRepository<Team, Long> {
 
+    // 팀 이름으로 첫 번째 팀 조회 (업로드 시 팀 이름 -> id 변환용)
+    Optional<Team> findFirstByName(String name);
 }
@@ -0,0 +1,109 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberChangeDto;
+import study.datajpa.dto.MemberChangesDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberTombstoneRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 회원 변경 피드 (delta sync)
+ * - 수정/추가: Member.lastModifiedDate 기준, 삭제: MemberTombstone.deletedDate 기준
+ *   팀 이름 변경은 TeamRenameListener가, 벌크 나이 변경(bulkAgePlus)은 쿼리가 직접 회원 수정 시각을 갱신
+ * - 두 스트림을 각각 (시각, id) 키셋으로 읽어서 시각 순으로 합침. 커서는 두 스트림의 마지막 위치를 함께 담음
+ * - lastModifiedDate는 커밋 전에 찍히므로, 최근 settle-seconds 이내 변경은 아직 내려주지 않음
+ *   (먼저 찍히고 늦게 커밋된 행을 워터마크가 지나쳐 버리는 것 방지)
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberChangeService {
+
+    static final int MAX_SIZE = 1000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final MemberRepository memberRepository;
+    private final MemberTombstoneRepository memberTombstoneRepository;
+
+    @Value("${member.changes.settle-seconds:5}")
+    private long settleSeconds;
+
+    /**
+     * @param since  첫 요청의 워터마크 (이 시각 이후 변경분). null이면 처음부터
+     * @param cursor 이전 응답의 nextCursor. 있으면 since는 무시
+     */
+    public MemberChangesDto findChanges(LocalDateTime since, String cursor, int size) {
+        size = Math.min(Math.max(size, 1), MAX_SIZE);
+        Cursor position = cursor != null ? Cursor.decode(cursor) : Cursor.since(since != null ? since : EPOCH);
+        LocalDateTime until = LocalDateTime.now().minusSeconds(settleSeconds);
+
+        List<MemberChangeDto> updated = memberRepository.findChangedAfter(
+                position.memberDate, position.memberId, until, Limit.of(size + 1));
+        List<MemberChangeDto> deleted = memberTombstoneRepository.findDeletedAfter(
+                position.deletedDate, position.deletedId, until, Limit.of(size + 1));
+
+        //(시각, id) 순으로 병합. 같은 시각이면 수정을 먼저 내보냄
+        List<MemberChangeDto> changes = new ArrayList<>(size);
+        int u = 0, d = 0;
+        while (changes.size() < size && (u < updated.size() || d < deleted.size())) {
+            MemberChangeDto next;
+            if (d >= deleted.size() || (u < updated.size() && !isAfter(updated.get(u), deleted.get(d)))) {
+                next = updated.get(u++);
+                position = position.withMember(next);
+            } else {
+                next = deleted.get(d++);
+                position = position.withDeleted(next);
+            }
+            changes.add(next);
+        }
+
+        boolean hasMore = u < updated.size() || d < deleted.size();
+        return new MemberChangesDto(changes, position.encode(), hasMore);
+    }
+
+    private static boolean isAfter(MemberChangeDto a, MemberChangeDto b) {
+        int compare = a.getChangedDate().compareTo(b.getChangedDate());
+        return compare > 0 || (compare == 0 && a.getMemberId() > b.getMemberId());
+    }
+
+    private record Cursor(LocalDateTime memberDate, Long memberId, LocalDateTime deletedDate, Long deletedId) {
+
+        static Cursor since(LocalDateTime since) {
+            //(since, MAX) 이후 = since보다 늦은 변경만
+            return new Cursor(since, Long.MAX_VALUE, since, Long.MAX_VALUE);
+        }
+
+        Cursor withMember(MemberChangeDto change) {
+            return new Cursor(change.getChangedDate(), change.getMemberId(), deletedDate, deletedId);
+        }
+
+        Cursor withDeleted(MemberChangeDto change) {
+            return new Cursor(memberDate, memberId, change.getChangedDate(), change.getMemberId());
+        }
+
+        String encode() {
+            String raw = memberDate + "|" + memberId + "|" + deletedDate + "|" + deletedId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                        LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+            }
+        }
+    }
+}
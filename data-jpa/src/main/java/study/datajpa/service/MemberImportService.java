@@ -0,0 +1,343 @@
+package study.datajpa.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberImportJob;
+import study.datajpa.dto.MemberImportRow;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.TeamRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 대용량 회원 업로드 (비동기 작업)
+ * - 요청 스레드: 본문을 임시 파일로 받기만 하고 작업을 등록해서 바로 반환 (DB 쓰기를 기다리지 않음)
+ * - 동시에 진행되는 작업은 MAX_CONCURRENT_IMPORTS개. 자리가 없으면 본문을 읽기 전에 RejectedExecutionException
+ *   (파서가 자리 없는 writer를 기다리며 큐를 잡고 있지 않도록)
+ * - 파서 스레드: 임시 파일을 한 줄씩 파싱해서 bounded queue에 넣음 (큐가 차면 파싱이 멈춤 -> 메모리 상한)
+ * - writer 스레드: 큐에서 꺼내 BATCH_SIZE 단위로 persist -> flush -> clear 후 커밋
+ *   JDBC batch 크기는 이 세션에만 설정 (모듈 전체 hibernate.jdbc.batch_size는 건드리지 않음)
+ * 파싱과 DB 쓰기가 겹쳐서 진행되고, 영속성 컨텍스트는 배치마다 비워지므로 파일 크기와 무관하게 메모리가 일정함
+ */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    static final int BATCH_SIZE = 1000;       //writer 세션의 JDBC batch 크기와 같음
+    static final int QUEUE_CAPACITY = 10_000;
+    static final int MAX_CONCURRENT_IMPORTS = 2;
+    static final int MAX_RETAINED_JOBS = 100;
+    private static final MemberImportRow END = new MemberImportRow();
+
+    public enum Format { CSV, NDJSON }
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TeamRepository teamRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    //자리(slots)를 얻은 작업만 실행되므로 두 풀 모두 작업이 쌓이지 않음
+    private final Semaphore slots = new Semaphore(MAX_CONCURRENT_IMPORTS);
+    private final ExecutorService parserExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_IMPORTS);
+    private final ExecutorService writerExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_IMPORTS);
+
+    private final AtomicLong jobSequence = new AtomicLong();
+    private final Map<Long, MemberImportJob> jobs = new LinkedHashMap<>();
+
+    public MemberImportService(TeamRepository teamRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper) {
+        this.teamRepository = teamRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 본문을 임시 파일로 받은 뒤 작업을 시작하고 바로 반환. 진행 상황은 {@link #findJob(Long)}으로 조회
+     * @throws RejectedExecutionException 이미 MAX_CONCURRENT_IMPORTS개가 진행 중 (본문은 읽지 않음)
+     */
+    public MemberImportJob importMembers(InputStream body, Format format) {
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("too many member imports in progress (max " + MAX_CONCURRENT_IMPORTS + ")");
+        }
+        MemberImportJob job = register(format);
+        Path file = null;
+        try {
+            file = Files.createTempFile("member-import-" + job.getId() + "-", "." + format.name().toLowerCase());
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            Path upload = file;
+            parserExecutor.execute(() -> run(job, upload, format));
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(file);
+            slots.release();
+            job.fail(e);
+        }
+        return job;
+    }
+
+    private void run(MemberImportJob job, Path file, Format format) {
+        Throwable failure = null;
+        try {
+            parseAndWrite(job, file, format);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        } catch (Exception e) {
+            failure = e;
+        } finally {
+            deleteQuietly(file);
+            slots.release();
+        }
+        //자리를 돌려준 뒤에 상태를 바꿈: 끝난 작업을 본 클라이언트가 바로 다음 업로드를 시작해도 거절되지 않도록
+        if (failure == null) {
+            job.complete();
+        } else {
+            job.fail(failure);
+        }
+
+        log.info("member import job={} status={} written={} rejected={} elapsed={}ms ({} rows/s)",
+                job.getId(), job.getStatus(), job.getWritten().get(), job.getRejected().get(),
+                job.getElapsedMillis(), (long) job.getRowsPerSecond());
+    }
+
+    private void parseAndWrite(MemberImportJob job, Path file, Format format) throws Exception {
+        BlockingQueue<MemberImportRow> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Future<?> writer = writerExecutor.submit(() -> writeLoop(queue, job));
+
+        try (InputStream body = Files.newInputStream(file)) {
+            if (format == Format.CSV) {
+                parseCsv(body, queue, job, writer);
+            } else {
+                parseNdjson(body, queue, job, writer);
+            }
+            put(queue, END, writer);
+            writer.get();
+        } catch (Exception e) {
+            writer.cancel(true); //writer가 이미 끝났으면(ExecutionException) 아무 일 없음
+            throw e;
+        }
+    }
+
+    public Optional<MemberImportJob> findJob(Long jobId) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(jobId));
+        }
+    }
+
+    public List<MemberImportJob> findJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parserExecutor.shutdownNow();
+        writerExecutor.shutdownNow();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("could not delete member import upload {}", file, e);
+        }
+    }
+
+    private MemberImportJob register(Format format) {
+        MemberImportJob job = new MemberImportJob(jobSequence.incrementAndGet(), format.name());
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            if (jobs.size() > MAX_RETAINED_JOBS) {
+                Long oldest = jobs.keySet().iterator().next();
+                jobs.remove(oldest);
+            }
+        }
+        return job;
+    }
+
+    /**
+     * 따옴표/이스케이프를 지원하지 않는 단순 CSV: username,age,teamName
+     * - 따옴표가 있거나 컬럼이 3개를 넘는 줄은 잘못 나눌 수 있으므로 rejected로 셈 (값 안의 쉼표는 지원하지 않음)
+     */
+    private void parseCsv(InputStream body, BlockingQueue<MemberImportRow> queue,
+                          MemberImportJob job, Future<?> writer)
+            throws IOException, InterruptedException, ExecutionException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        boolean first = true;
+        while ((line = reader.readLine()) != null) {
+            if (first && line.startsWith("username")) { //헤더는 건너뜀
+                first = false;
+                continue;
+            }
+            first = false;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            String[] columns = line.split(",", -1);
+            if (line.indexOf('"') >= 0 || columns.length > 3) {
+                job.getRejected().incrementAndGet();
+                continue;
+            }
+            try {
+                String teamName = columns.length > 2 ? columns[2].trim() : null;
+                put(queue, new MemberImportRow(columns[0].trim(), Integer.parseInt(columns[1].trim()), teamName), writer);
+                job.getParsed().incrementAndGet();
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                job.getRejected().incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 한 줄씩 읽어서 줄마다 따로 파싱
+     * - 잘못된 줄은 그 줄만 rejected (하나의 파서로 이어 읽으면 오류 뒤의 파서 상태를 믿을 수 없음)
+     */
+    private void parseNdjson(InputStream body, BlockingQueue<MemberImportRow> queue,
+                             MemberImportJob job, Future<?> writer)
+            throws IOException, InterruptedException, ExecutionException {
+        ObjectReader rowReader = objectMapper.readerFor(MemberImportRow.class);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            MemberImportRow row;
+            try {
+                row = rowReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                job.getRejected().incrementAndGet();
+                continue;
+            }
+            put(queue, row, writer);
+            job.getParsed().incrementAndGet();
+        }
+    }
+
+    //writer가 먼저 죽으면 큐가 비워지지 않으므로 기다리지 않고 바로 실패시킴
+    private void put(BlockingQueue<MemberImportRow> queue, MemberImportRow row,
+                     Future<?> writer) throws InterruptedException, ExecutionException {
+        while (!queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) {
+                writer.get(); //writer 예외를 그대로 전달
+                throw new IllegalStateException("member import writer stopped");
+            }
+        }
+    }
+
+    private void writeLoop(BlockingQueue<MemberImportRow> queue, MemberImportJob job) {
+        Map<String, Long> teamIds = new HashMap<>(); //작업 단위 팀 이름 -> id 캐시
+        List<MemberImportRow> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (true) {
+                MemberImportRow row = queue.take();
+                if (row == END) {
+                    break;
+                }
+                batch.add(row);
+                if (batch.size() == BATCH_SIZE) {
+                    writeBatch(batch, teamIds, job);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch, teamIds, job);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(Collection<MemberImportRow> batch, Map<String, Long> teamIds, MemberImportJob job) {
+        Map<String, Long> created = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            em.unwrap(Session.class).setJdbcBatchSize(BATCH_SIZE); //이 트랜잭션의 세션에만
+            for (MemberImportRow row : batch) {
+                Member member = new Member(row.getUsername(), row.getAge());
+                Long teamId = resolveTeamId(row.getTeamName(), teamIds, created);
+                if (teamId != null) {
+                    //changeTeam()은 team.getMembers()로 팀 프록시를 초기화(select)하므로 setter로 프록시만 연결
+                    //(바이트코드 향상의 연관관계 관리는 초기화되지 않은 프록시/컬렉션은 건드리지 않음)
+                    member.setTeam(em.getReference(Team.class, teamId));
+                }
+                em.persist(member);
+            }
+            em.flush();
+            em.clear();
+        });
+        //커밋된 뒤에만 새로 만든 팀을 캐시에 반영 (롤백된 id가 캐시에 남지 않도록)
+        teamIds.putAll(created);
+        job.getTeamsCreated().addAndGet(created.size());
+        job.getWritten().addAndGet(batch.size());
+        job.getBatches().incrementAndGet();
+    }
+
+    private Long resolveTeamId(String teamName, Map<String, Long> teamIds, Map<String, Long> created) {
+        if (!hasText(teamName)) {
+            return null;
+        }
+        Long teamId = teamIds.get(teamName);
+        if (teamId == null) {
+            teamId = created.get(teamName);
+        }
+        if (teamId == null) {
+            teamId = teamRepository.findFirstByName(teamName)
+                    .map(Team::getId)
+                    .orElse(null);
+            if (teamId != null) {
+                teamIds.put(teamName, teamId);
+            } else {
+                Team team = new Team(teamName);
+                em.persist(team);
+                teamId = team.getId();
+                created.put(teamName, teamId);
+            }
+        }
+        return teamId;
+    }
+}
@@ -0,0 +1,55 @@
+package study.datajpa.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberVersion;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 회원 조회 서비스
+ * - 클래스 레벨 readOnly 트랜잭션: 스프링이 Hibernate 세션을 FlushMode.MANUAL + defaultReadOnly로 바꿈
+ *   -> 조회한 엔티티의 스냅샷을 만들지 않고, 커밋 시 dirty checking/flush도 하지 않음
+ * - 엔티티는 서비스 밖으로 내보내지 않고 DTO/값으로 변환해서 반환
+ * - OSIV를 끄고 운영하므로 메서드마다 필요한 연관관계를 쿼리에서 미리 결정 (fetch plan)
+ *   트랜잭션 밖에서 지연 로딩이 일어나면 LazyInitializationException
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberService {
+
+    private final MemberRepository memberRepository;
+
+    //fetch plan: username 스칼라 projection
+    public String findUsername(Long id) {
+        return memberRepository.findUsernameById(id).orElseThrow();
+    }
+
+    //fetch plan: MemberDto projection + team left join
+    public Page<MemberDto> findMembers(Pageable pageable) {
+        return memberRepository.findMemberDtoPage(pageable);
+    }
+
+    /**
+     * 회원 목록의 현재 버전 (ETag 값)
+     * - 행 수 + 회원/팀 최종 수정 시각: 추가/삭제/수정 중 하나라도 있으면 값이 바뀜
+     * - 페이지 응답에 totalElements가 들어가므로 페이지 범위가 아닌 테이블 전체 기준으로 계산
+     */
+    public String findMembersVersion() {
+        MemberVersion version = memberRepository.findMemberVersion();
+        return version.getMemberCount()
+                + "-" + toEpochMillis(version.getMemberLastModified())
+                + "-" + toEpochMillis(version.getTeamLastModified());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? 0 : dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,109 @@
+package study.datajpa.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * OSIV off 검증
+ * - 테스트에 트랜잭션을 걸지 않으므로, 엔드포인트가 fetch plan 없이 지연 로딩에 기대면
+ *   JSON 직렬화 중 LazyInitializationException -> 500 으로 실패함
+ * - 데이터는 커밋되므로 끝나면 지움
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry meterRegistry;
+
+    Member member;
+
+    @BeforeEach
+    public void before() {
+        Team team = teamRepository.save(new Team("osivTeam"));
+        Member newMember = new Member("osivMember", 10);
+        newMember.setTeam(team);
+        member = memberRepository.save(newMember);
+    }
+
+    @AfterEach
+    public void after() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username in ('osivMember', 'etagMember')").executeUpdate();
+            em.createQuery("delete from Team t where t.name = 'osivTeam'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void endpointsDoNotLazyLoadOutsideTransaction() throws Exception {
+        mockMvc.perform(get("/members").param("size", "2000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray());
+
+        mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/members2/{id}", member.getId()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void recordsConnectionHoldTime() throws Exception {
+        mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("jdbc.connections.hold").timer().count()).isPositive();
+        assertThat(meterRegistry.get("http.server.requests.connection.hold")
+                .tag("uri", "/members/{id}").timer().count()).isPositive();
+    }
+
+    @Test
+    public void lazyLoadingOutsideTransactionFails() {
+        Member findMember = memberRepository.findById(member.getId()).get();
+
+        assertThatThrownBy(() -> findMember.getTeam().getName())
+                .isInstanceOf(LazyInitializationException.class);
+    }
+
+    @Test
+    public void listNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/members"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        //회원이 추가되면 버전이 바뀌어 다시 200
+        memberRepository.save(new Member("etagMember", 20));
+        mockMvc.perform(get("/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+}
@@ -0,0 +1,86 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 영속성 컨텍스트에 회원 N명이 올라가 있을 때 flush 비용 측정
+ * - 바이트코드 향상 전/후 비교: ./gradlew benchmark  vs  ./gradlew benchmark -PnoEnhance
+ * - 변경 없는 flush(순수 dirty checking 비용)와 1% 변경 flush를 각각 측정
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flush_bench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "decorator.datasource.p6spy.enable-logging=false",
+        "logging.level.org.hibernate.SQL=info"
+})
+class FlushBenchmarkTest {
+
+    private static final int ROUNDS = 5;
+    private static final int MEMBERS_PER_TEAM = 100;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void flush10k() {
+        benchmark(10_000);
+    }
+
+    @Test
+    public void flush100k() {
+        benchmark(100_000);
+    }
+
+    private void benchmark(int size) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            List<Member> members = new ArrayList<>(size);
+            Team team = null;
+            for (int i = 0; i < size; i++) {
+                if (i % MEMBERS_PER_TEAM == 0) {
+                    team = new Team("benchTeam" + i);
+                    em.persist(team);
+                }
+                Member member = new Member("bench" + i, i % 100, team);
+                em.persist(member);
+                members.add(member);
+            }
+            em.flush(); //insert는 측정에서 제외
+
+            long cleanNanos = Long.MAX_VALUE;
+            long dirtyNanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                em.flush();
+                cleanNanos = Math.min(cleanNanos, System.nanoTime() - start);
+
+                for (int i = round; i < size; i += 100) { //1% 변경
+                    members.get(i).setAge(members.get(i).getAge() + 1);
+                }
+                start = System.nanoTime();
+                em.flush();
+                dirtyNanos = Math.min(dirtyNanos, System.nanoTime() - start);
+            }
+
+            System.out.printf("[flush] enhanced=%s members=%d clean=%.2fms dirty(1%%)=%.2fms%n",
+                    ManagedEntity.class.isAssignableFrom(Member.class), size,
+                    cleanNanos / 1_000_000.0, dirtyNanos / 1_000_000.0);
+            status.setRollbackOnly();
+        });
+    }
+}
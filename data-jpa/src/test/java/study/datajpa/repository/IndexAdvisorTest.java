@@ -0,0 +1,79 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 조건이 있는 repository 쿼리가 모두 인덱스를 타는지 EXPLAIN으로 확인
+ * - 새 쿼리 메서드를 추가하면 여기에도 호출을 추가해서 인덱스 누락을 잡는다
+ */
+@SpringBootTest
+@Transactional
+class IndexAdvisorTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        IndexAdvisor indexAdvisor() {
+            return new IndexAdvisor();
+        }
+    }
+
+    @Autowired IndexAdvisor indexAdvisor;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired MemberTombstoneRepository memberTombstoneRepository;
+    @PersistenceContext EntityManager em;
+
+    @BeforeEach
+    public void before() {
+        Team team = teamRepository.save(new Team("advisorTeam"));
+        for (int i = 0; i < 100; i++) {
+            memberRepository.save(new Member("advisor" + i, i, team));
+        }
+        em.flush();
+        em.clear();
+        indexAdvisor.reset();
+    }
+
+    @Test
+    public void repositoryQueriesUseIndexes() {
+        memberRepository.findByUsername("advisor1");
+        memberRepository.findMemberByUsername("advisor1");
+        memberRepository.findOptionalByUsername("advisor1");
+        memberRepository.findListByUsername("advisor1");
+        memberRepository.findByNativeQuery("advisor1");
+        memberRepository.findUser("advisor1", 1);
+        memberRepository.findByNames(List.of("advisor1", "advisor2"));
+        memberRepository.findByUsernameAndAgeGreaterThan("advisor1", 0);
+        memberRepository.findEntityGraphByUsername("advisor1");
+        memberRepository.findReadOnlyByUsername("advisor1");
+        memberRepository.findChangedAfter(LocalDateTime.now().minusDays(1), 0L, LocalDateTime.now(), Limit.of(10));
+        memberTombstoneRepository.findDeletedAfter(LocalDateTime.now().minusDays(1), 0L, LocalDateTime.now(), Limit.of(10));
+        memberJpaRepository.findByUsername("advisor1");
+        memberJpaRepository.findByPage(10, 0, 3);
+        memberJpaRepository.totalCount(10);
+        teamRepository.findFirstByName("advisorTeam");
+
+        List<IndexAdvisor.Finding> findings = indexAdvisor.analyze(jdbcTemplate);
+        assertThat(findings).as("filtered tables read by full scan (finding lists the SQL)").isEmpty();
+    }
+}
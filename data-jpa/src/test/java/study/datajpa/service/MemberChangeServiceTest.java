@@ -0,0 +1,101 @@
+package study.datajpa.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberChangeDto;
+import study.datajpa.dto.MemberChangesDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//tombstone은 커밋 시점에 기록되므로 테스트 트랜잭션을 걸지 않음 -> 넣은 데이터는 끝나면 지움
+@SpringBootTest(properties = "member.changes.settle-seconds=0")
+class MemberChangeServiceTest {
+
+    @Autowired MemberChangeService memberChangeService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManager em;
+
+    List<Long> deletedMemberIds = new ArrayList<>(); //tombstone 정리용
+
+    @AfterEach
+    public void after() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'change%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'changeTeam%'").executeUpdate();
+            if (!deletedMemberIds.isEmpty()) {
+                em.createQuery("delete from MemberTombstone t where t.memberId in :ids")
+                        .setParameter("ids", deletedMemberIds)
+                        .executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    public void changesAndTombstones() {
+        LocalDateTime since = LocalDateTime.now();
+        Member member1 = memberRepository.save(new Member("change1", 10));
+        Member member2 = memberRepository.save(new Member("change2", 20));
+
+        MemberChangesDto first = memberChangeService.findChanges(since, null, 1);
+        assertThat(first.getChanges()).extracting("memberId").containsExactly(member1.getId());
+        assertThat(first.isHasMore()).isTrue();
+
+        MemberChangesDto second = memberChangeService.findChanges(null, first.getNextCursor(), 100);
+        assertThat(second.getChanges()).extracting("memberId").containsExactly(member2.getId());
+
+        //삭제는 tombstone으로 이어서 내려옴
+        memberRepository.delete(member1);
+        deletedMemberIds.add(member1.getId());
+        MemberChangesDto third = memberChangeService.findChanges(null, second.getNextCursor(), 100);
+        assertThat(third.getChanges()).hasSize(1);
+        MemberChangeDto tombstone = third.getChanges().get(0);
+        assertThat(tombstone.getMemberId()).isEqualTo(member1.getId());
+        assertThat(tombstone.isDeleted()).isTrue();
+        assertThat(third.isHasMore()).isFalse();
+    }
+
+    @Test
+    public void teamRenameAndBulkUpdateAppearInFeed() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Team team = teamRepository.save(new Team("changeTeam"));
+        Member member = tx.execute(status -> memberRepository.save(
+                new Member("change3", 1000, teamRepository.findById(team.getId()).orElseThrow())));
+
+        //팀 이름만 바꿔도 회원이 다시 내려옴
+        LocalDateTime beforeRename = tick();
+        tx.executeWithoutResult(status -> teamRepository.findById(team.getId()).orElseThrow().setName("changeTeamRenamed"));
+        MemberChangesDto renamed = memberChangeService.findChanges(beforeRename, null, 100);
+        assertThat(renamed.getChanges()).filteredOn("memberId", member.getId())
+                .extracting("teamName").containsExactly("changeTeamRenamed");
+
+        //벌크 수정도 수정 시각을 갱신
+        LocalDateTime beforeBulk = tick();
+        tx.executeWithoutResult(status -> memberRepository.bulkAgePlus(1000));
+        MemberChangesDto bulk = memberChangeService.findChanges(beforeBulk, null, 100);
+        assertThat(bulk.getChanges()).filteredOn("memberId", member.getId())
+                .extracting("age").containsExactly(1001);
+    }
+
+    //같은 시각에 찍힌 앞 단계 변경과 구분되도록 잠깐 대기
+    private static LocalDateTime tick() throws InterruptedException {
+        Thread.sleep(20);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(20);
+        return now;
+    }
+}
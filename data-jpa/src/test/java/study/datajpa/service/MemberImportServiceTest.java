@@ -0,0 +1,127 @@
+package study.datajpa.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberImportJob;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+//작업은 비동기로 돌고 writer 스레드가 별도 트랜잭션으로 커밋하므로 테스트 트랜잭션을 걸지 않음 -> 넣은 데이터는 끝나면 지움
+@SpringBootTest
+class MemberImportServiceTest {
+
+    @Autowired MemberImportService memberImportService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void after() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'import%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'importTeam%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void importCsv() throws Exception {
+        String csv = "username,age,teamName\n" +
+                "importCsv1,10,importTeamA\n" +
+                "importCsv2,20,importTeamA\n" +
+                "importCsv3,x,importTeamB\n" + //나이 형식 오류 -> rejected
+                "importCsv4,40,\n" +
+                "\"importCsv5, jr\",50,importTeamA\n" + //따옴표 -> 지원하지 않으므로 rejected
+                "importCsv6,60,importTeamA,extra\n"; //컬럼 초과 -> rejected
+
+        MemberImportJob job = await(memberImportService.importMembers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), MemberImportService.Format.CSV));
+
+        assertThat(job.getStatus()).isEqualTo(MemberImportJob.Status.COMPLETED);
+        assertThat(job.getWritten().get()).isEqualTo(3);
+        assertThat(job.getRejected().get()).isEqualTo(3);
+
+        List<Member> result = memberRepository.findEntityGraphByUsername("importCsv2");
+        assertThat(result.get(0).getTeam().getName()).isEqualTo("importTeamA");
+        assertThat(memberRepository.findEntityGraphByUsername("importCsv4").get(0).getTeam()).isNull();
+    }
+
+    @Test
+    public void importNdjson() throws Exception {
+        String ndjson = "{\"username\":\"importJson1\",\"age\":10,\"teamName\":\"importTeamC\"}\n" +
+                "{\"username\":\"importJson2\",\"age\":20,\"teamName\":\"importTeamC\"}\n" +
+                "{\"username\":\"importJson3\",\"age\":\n" + //깨진 줄 -> 그 줄만 rejected
+                "{\"username\":\"importJson4\",\"age\":40}\n";
+
+        MemberImportJob job = await(memberImportService.importMembers(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), MemberImportService.Format.NDJSON));
+
+        assertThat(job.getStatus()).isEqualTo(MemberImportJob.Status.COMPLETED);
+        assertThat(job.getWritten().get()).isEqualTo(3);
+        assertThat(job.getRejected().get()).isEqualTo(1);
+        assertThat(memberImportService.findJob(job.getId())).contains(job);
+    }
+
+    @Test
+    public void rejectsImportsBeyondLimit() throws Exception {
+        //본문이 끝나지 않은 업로드로 자리를 모두 채움
+        List<PipedOutputStream> uploads = new ArrayList<>();
+        List<Future<MemberImportJob>> running = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(MemberImportService.MAX_CONCURRENT_IMPORTS);
+        try {
+            for (int i = 0; i < MemberImportService.MAX_CONCURRENT_IMPORTS; i++) {
+                PipedOutputStream upload = new PipedOutputStream();
+                PipedInputStream body = new PipedInputStream(upload);
+                uploads.add(upload);
+                running.add(clients.submit(() -> memberImportService.importMembers(body, MemberImportService.Format.CSV)));
+            }
+            Thread.sleep(200); //두 요청이 자리를 잡고 본문을 기다릴 때까지
+
+            assertThatThrownBy(() -> memberImportService.importMembers(
+                    new ByteArrayInputStream(new byte[0]), MemberImportService.Format.CSV))
+                    .isInstanceOf(RejectedExecutionException.class);
+
+            for (PipedOutputStream upload : uploads) {
+                upload.write("importLimit1,10,\n".getBytes(StandardCharsets.UTF_8));
+                upload.close();
+            }
+            for (Future<MemberImportJob> job : running) {
+                assertThat(await(job.get(5, TimeUnit.SECONDS)).getStatus()).isEqualTo(MemberImportJob.Status.COMPLETED);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        //끝난 작업은 자리를 돌려줌
+        assertThat(await(memberImportService.importMembers(
+                new ByteArrayInputStream(new byte[0]), MemberImportService.Format.CSV)).getStatus())
+                .isEqualTo(MemberImportJob.Status.COMPLETED);
+    }
+
+    private static MemberImportJob await(MemberImportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (job.getStatus() == MemberImportJob.Status.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return job;
+    }
+}
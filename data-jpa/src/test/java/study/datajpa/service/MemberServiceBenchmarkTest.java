@@ -0,0 +1,91 @@
+package study.datajpa.service;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * GET /members 한 번에 해당하는 조회의 힙 할당량/지연시간 비교
+ * - before: 기존 배선(OSIV처럼 읽기/쓰기 영속성 컨텍스트 안에서 repository 직접 호출)
+ * - after : MemberService (readOnly 트랜잭션, 스냅샷/flush 없음)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:service_bench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "decorator.datasource.p6spy.enable-logging=false",
+        "logging.level.org.hibernate.SQL=info"
+})
+class MemberServiceBenchmarkTest {
+
+    private static final int MEMBERS = 10_000;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1_000;
+    private static final Pageable PAGE = PageRequest.of(3, 500);
+
+    @Autowired MemberService memberService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void before() {
+        if (memberRepository.count() > 0) {
+            return;
+        }
+        Team team = teamRepository.save(new Team("benchTeam"));
+        List<Member> members = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member("member" + i, i % 100);
+            member.setTeam(team);
+            members.add(member);
+        }
+        memberRepository.saveAll(members);
+    }
+
+    @Test
+    public void list() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        Supplier<List<MemberDto>> before = () -> readWrite.execute(status ->
+                memberRepository.findAll(PAGE).map(MemberDto::new).getContent());
+        Supplier<List<MemberDto>> after = () -> memberService.findMembers(PAGE).getContent();
+
+        measure("repository(read-write)", before);
+        measure("service(readOnly)", after);
+    }
+
+    private void measure(String name, Supplier<?> call) {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            call.get();
+        }
+
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("[members page] %-24s heap/request=%dKB latency=%.3fms%n",
+                name, allocated / ITERATIONS / 1024, elapsed / 1_000_000.0 / ITERATIONS);
+    }
+}
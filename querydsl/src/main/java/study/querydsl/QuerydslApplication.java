@@ -5,8 +5,11 @@ import jakarta.persistence.EntityManager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.querydsl.repository.BudgetedJPAQueryFactory;
 
 @SpringBootApplication
+@EnableScheduling
 public class QuerydslApplication {
 
 	public static void main(String[] args) {
@@ -15,7 +18,7 @@ public class QuerydslApplication {
 
 	@Bean
 	JPAQueryFactory jpaQueryFactory(EntityManager em) {
-		return new JPAQueryFactory(em);
+		return new BudgetedJPAQueryFactory(em);
 	}
 
 }
@@ -1,42 +1,26 @@
 package study.querydsl.controller;
 
 import jakarta.annotation.PostConstruct;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-import study.querydsl.entity.Member;
-import study.querydsl.entity.Team;
+import study.querydsl.service.DataGenerator;
+import study.querydsl.service.DataGeneratorProperties;
 
-@Profile("local")
+/**
+ * local / perf 프로필 초기 데이터 (규모와 분포는 application-{profile}.yml의 data.generator)
+ * - @PostConstruct: 메모리 인덱스/요약 테이블이 적재되는 ApplicationReadyEvent 전에 생성
+ */
+@Profile({"local", "perf"})
 @Component
 @RequiredArgsConstructor
 public class InitMember {
-    private final InitMemberService initMemberService;
+
+    private final DataGenerator dataGenerator;
+    private final DataGeneratorProperties properties;
 
     @PostConstruct
     public void init() {
-        initMemberService.init();
-    }
-
-    @Component
-    static class InitMemberService {
-        @PersistenceContext
-        EntityManager em;
-
-        @Transactional
-        public void init() {
-            Team teamA = new Team("teamA");
-            Team teamB = new Team("teamB");
-            em.persist(teamA);
-            em.persist(teamB);
-
-            for (int i = 0; i < 100; i++) {
-                Team selectedTeam = i % 2 == 0 ? teamA : teamB;
-                em.persist(new Member("member" + i, i, selectedTeam));
-            }
-        }
+        dataGenerator.generate(properties);
     }
 }
@@ -1,38 +1,117 @@
 package study.querydsl.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSeekKey;
+import study.querydsl.dto.MemberSeekPage;
 import study.querydsl.dto.MemberTeamDto;
-import study.querydsl.repository.MemberJpaRepository;
-import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.QueryBudget;
+import study.querydsl.service.MemberService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
-    private final MemberJpaRepository memberJpaRepository;
-    private final MemberRepository memberRepository;
+    private static final int FLUSH_EVERY = 100;
+
+    private final MemberService memberService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.search(condition);
+        return memberService.search(condition);
+    }
+
+    /**
+     * v1과 같은 검색을 NDJSON(한 줄에 회원 하나)으로 스트리밍
+     * - 행을 읽는 대로 써서 결과 전체를 힙에 올리지 않음
+     * - 블로킹 출력이라 클라이언트가 느리게 읽으면 쓰기가 막히고, 그동안 DB 커서도 더 읽지 않음
+     * - 클라이언트가 끊으면 쓰기에서 IOException -> 스트림/트랜잭션 종료
+     * - 본문은 MVC async 스레드에서 실행되므로 요청의 QueryBudget을 넘겨서 묶음
+     * - StreamingResponseBody만 반환하면 produces가 Content-Type을 정하지 않으므로 ResponseEntity로 지정
+     */
+    @GetMapping(value = "/v1/members/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> searchMemberStream(MemberSearchCondition condition) {
+        ObjectWriter writer = objectMapper.writerFor(MemberTeamDto.class);
+        QueryBudget budget = QueryBudget.current();
+        StreamingResponseBody body = out -> {
+            try (QueryBudget.Binding ignored = QueryBudget.bind(budget)) {
+                AtomicLong written = new AtomicLong();
+                memberService.searchStream(condition, row -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(row));
+                        out.write('\n');
+                        if (written.incrementAndGet() % FLUSH_EVERY == 0) {
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    //여러 검색을 한 번에: 요청 본문은 검색 조건 배열, 응답은 같은 순서의 결과 배열
+    @PostMapping("/v1/members/batch")
+    public List<List<MemberTeamDto>> searchMemberBatch(@RequestBody List<MemberSearchCondition> conditions) {
+        return memberService.searchBatch(conditions);
     }
 
     @GetMapping("/v2/members")
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageSimple(condition,pageable);
+        return memberService.searchPageSimple(condition, pageable);
     }
 
     @GetMapping("/v3/members")
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPageComplex(condition,pageable);
+        return memberService.searchPageComplex(condition, pageable);
     }
 
+    //키셋 페이징: sort=id|age, 다음 페이지는 응답의 nextCursor를 cursor로 전달
+    @GetMapping("/v4/members")
+    public MemberSeekPage searchMemberV4(MemberSearchCondition condition,
+                                         @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                         @RequestParam(value = "cursor", required = false) String cursor,
+                                         @RequestParam(value = "size", defaultValue = "20") int size) {
+        return memberService.searchSeek(condition, MemberSeekKey.from(sort), cursor, size);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(IllegalArgumentException e) {
+        return e.getMessage();
+    }
 
+    //QueryBudget 초과 (repository 예외 변환 전/후 모두)
+    @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class})
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public String queryTimeout(RuntimeException e) {
+        return "query time budget exceeded";
+    }
 }
@@ -0,0 +1,22 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.service.TeamStatsService;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamStatsController {
+
+    private final TeamStatsService teamStatsService;
+
+    //팀별 회원 수/나이 합계/평균/최대/최소 (요약 테이블에서 조회)
+    @GetMapping("/teams/stats")
+    public List<TeamStatsDto> teamStats() {
+        return teamStatsService.findAll();
+    }
+}
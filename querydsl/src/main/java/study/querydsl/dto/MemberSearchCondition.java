@@ -2,6 +2,8 @@ package study.querydsl.dto;
 
 import lombok.Data;
 
+import static org.springframework.util.StringUtils.hasText;
+
 @Data
 public class MemberSearchCondition {
     //회원명, 팀명, 나이
@@ -10,4 +12,43 @@ public class MemberSearchCondition {
     private String teamName;
     private Integer ageGoe; //크거나 같거나
     private Integer ageLoe; //작거나 같거나
+    private String usernameStartsWith; //회원명 ~로 시작
+    private String usernameContains; //회원명에 ~를 포함
+
+    /**
+     * 같은 검색을 같은 값으로 만든 복사본 (캐시 키용)
+     * - 공백 문자열은 조건이 없는 것과 같으므로 null로 통일 (where 절의 hasText 처리와 동일)
+     */
+    public MemberSearchCondition normalized() {
+        MemberSearchCondition copy = new MemberSearchCondition();
+        copy.setUsername(hasText(username) ? username : null);
+        copy.setTeamName(hasText(teamName) ? teamName : null);
+        copy.setAgeGoe(ageGoe);
+        copy.setAgeLoe(ageLoe);
+        copy.setUsernameStartsWith(hasText(usernameStartsWith) ? usernameStartsWith : null);
+        copy.setUsernameContains(hasText(usernameContains) ? usernameContains : null);
+        return copy;
+    }
+
+    /**
+     * @return 조건이 하나라도 있으면 true (공백 문자열은 조건이 없는 것과 같음)
+     */
+    public boolean hasFilter() {
+        return hasText(username) || hasText(teamName) || ageGoe != null || ageLoe != null
+                || hasText(usernameStartsWith) || hasText(usernameContains);
+    }
+
+    /**
+     * 조회된 행이 이 조건에 맞는지 (where 절과 같은 규칙: 빈 조건은 무시, 문자열 비교는 대소문자 구분)
+     * - 여러 조건을 한 쿼리로 조회한 뒤 조건별로 나눌 때 사용
+     */
+    public boolean matches(MemberTeamDto row) {
+        String name = row.getUsername();
+        return (!hasText(username) || username.equals(name))
+                && (!hasText(teamName) || teamName.equals(row.getTeamName()))
+                && (ageGoe == null || row.getAge() >= ageGoe)
+                && (ageLoe == null || row.getAge() <= ageLoe)
+                && (!hasText(usernameStartsWith) || (name != null && name.startsWith(usernameStartsWith)))
+                && (!hasText(usernameContains) || (name != null && name.contains(usernameContains)));
+    }
 }
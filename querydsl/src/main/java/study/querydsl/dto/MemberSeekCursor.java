@@ -0,0 +1,45 @@
+package study.querydsl.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋 페이징 불투명 커서: base64("정렬키|키 값|member.id")
+ * - 해석/검증은 서비스에서 (리포지토리 안에서 던진 IllegalArgumentException은 스프링 데이터가
+ *   InvalidDataAccessApiUsageException으로 바꾸므로 400으로 응답할 수 없음)
+ */
+public record MemberSeekCursor(MemberSeekKey sortKey, long key, long id) {
+
+    public static MemberSeekCursor of(MemberSeekKey sortKey, MemberTeamDto last) {
+        long key = switch (sortKey) {
+            case ID -> last.getMemberId();
+            case AGE -> last.getAge();
+        };
+        return new MemberSeekCursor(sortKey, key, last.getMemberId());
+    }
+
+    public String encode() {
+        String raw = sortKey + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return 커서가 null이면 null (첫 페이지). 형식이 틀리거나 다른 정렬 키로 발급된 커서면 IllegalArgumentException
+     */
+    public static MemberSeekCursor decode(String cursor, MemberSeekKey sortKey) {
+        if (cursor == null) {
+            return null;
+        }
+        MemberSeekCursor decoded;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            decoded = new MemberSeekCursor(MemberSeekKey.valueOf(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+        }
+        if (decoded.sortKey() != sortKey) {
+            throw new IllegalArgumentException("cursor was issued for sort " + decoded.sortKey());
+        }
+        return decoded;
+    }
+}
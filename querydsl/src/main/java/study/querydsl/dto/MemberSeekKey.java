@@ -0,0 +1,19 @@
+package study.querydsl.dto;
+
+import java.util.Locale;
+
+/**
+ * 키셋 페이징 정렬 키 (항상 member.id를 두 번째 키로 사용)
+ * - 정렬 키는 not null 컬럼만 허용 (null이 섞이면 (key, id) 비교로 위치를 이어갈 수 없음)
+ */
+public enum MemberSeekKey {
+    ID, AGE;
+
+    public static MemberSeekKey from(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unsupported sort key: " + value);
+        }
+    }
+}
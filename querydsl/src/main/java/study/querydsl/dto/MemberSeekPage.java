@@ -0,0 +1,20 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+//키셋 페이지 응답: 다음 페이지는 nextCursor를 그대로 넘겨서 요청
+@Data
+public class MemberSeekPage {
+
+    private List<MemberTeamDto> content;
+    private String nextCursor; //마지막 페이지면 null
+    private boolean hasNext;
+
+    public MemberSeekPage(List<MemberTeamDto> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
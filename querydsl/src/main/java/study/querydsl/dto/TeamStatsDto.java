@@ -0,0 +1,25 @@
+package study.querydsl.dto;
+
+import lombok.Data;
+import study.querydsl.entity.TeamStats;
+
+@Data
+public class TeamStatsDto {
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private long ageSum;
+    private Double ageAvg; //회원이 없으면 null
+    private Integer ageMax;
+    private Integer ageMin;
+
+    public TeamStatsDto(TeamStats stats) {
+        this.teamId = stats.getTeamId();
+        this.teamName = stats.getTeamName();
+        this.memberCount = stats.getMemberCount();
+        this.ageSum = stats.getAgeSum();
+        this.ageAvg = stats.getMemberCount() > 0 ? (double) stats.getAgeSum() / stats.getMemberCount() : null;
+        this.ageMax = stats.getAgeMax();
+        this.ageMin = stats.getAgeMin();
+    }
+}
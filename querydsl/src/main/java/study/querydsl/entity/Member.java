@@ -8,6 +8,10 @@ import lombok.*;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) //protected 기본생성자
 @ToString(of = {"id", "username", "age"})
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username, member_id"), //usernameEq, findByUsername, username 정렬
+        @Index(name = "idx_member_age", columnList = "age, member_id") //ageGoe, ageLoe, age 정렬/키셋 (age, id)
+})
 public class Member {
 
     @Id @GeneratedValue
@@ -37,7 +41,9 @@ public class Member {
     }
 
     public void changeTeam(Team team) {
-        this.team = team;
+        //컬렉션에 먼저 추가하고 필드를 바꿈. 바이트코드 향상(association management)이 켜져 있으면
+        //필드 대입 시점에 이전 팀에서 제거 + 새 팀에 추가(이미 있으면 생략)를 해주므로 중복 추가되지 않음
         team.getMembers().add(this);
+        this.team = team;
     }
 }
@@ -11,6 +11,7 @@ import java.util.List;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name, team_id")) //teamNameEq, team.name 정렬
 public class Team {
 
     @Id @GeneratedValue
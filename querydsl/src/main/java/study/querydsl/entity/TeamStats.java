@@ -0,0 +1,42 @@
+package study.querydsl.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 팀별 회원 나이 통계 요약 테이블 (TeamStatsService가 회원 변경 이벤트로 갱신, 주기적으로 전체 재계산)
+ * - 평균은 ageSum / memberCount로 조회 시 계산
+ * - 회원이 없는 팀은 memberCount 0, ageMax/ageMin null
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamStats {
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+    private String teamName;
+    private long memberCount;
+    private long ageSum;
+    private Integer ageMax;
+    private Integer ageMin;
+
+    public TeamStats(Long teamId) {
+        this.teamId = teamId;
+    }
+
+    public void refresh(String teamName, long memberCount, long ageSum, Integer ageMax, Integer ageMin) {
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.ageSum = ageSum;
+        this.ageMax = ageMax;
+        this.ageMin = ageMin;
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.event;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 커밋 이벤트로 유지하는 메모리 구조(카운터, 인덱스 등)로 조회를 대신해도 되는지 판단
+ * - 메모리 구조에는 커밋된 변경만 반영되므로, 쓰기 트랜잭션 안에서는 자기 자신의 미커밋 변경이 빠져 있음
+ * - 트랜잭션이 없거나 readOnly 트랜잭션(MemberService)일 때만 사용
+ */
+public final class InMemoryReads {
+
+    private InMemoryReads() {
+    }
+
+    public static boolean allowed() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,109 @@
+package study.querydsl.event;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 엔티티 이벤트 없이 member/team 행을 바꾸는 SQL(벌크 JPQL, 네이티브 쿼리, JdbcTemplate)을 감지
+ * - p6spy 리스너라 이 데이터소스로 실행되는 SQL은 JPA/JDBC 구분 없이 모두 봄
+ * - Hibernate가 엔티티 하나를 쓰는 모양(pk = ? 조건의 update/delete, values (?, ...) insert)은
+ *   커밋 이벤트(MemberChangePublisher)가 따로 오므로 제외
+ *   JdbcTemplate으로 같은 모양의 SQL을 실행하는 쪽(DataGenerator)은 invalidate()/changed()를 직접 호출
+ * - 감지하면 generation을 바로 올리고, 커밋/롤백 뒤(트랜잭션 밖이면 바로) 한 번 더 올린 다음 onBulkChange 호출
+ *   메모리 구조는 적재를 시작할 때의 generation을 기억하고, 현재 값과 다르면 조회에 쓰지 않음 (DB로 조회)
+ *   커밋 뒤에 다시 올리므로 커밋 전에 시작된 재적재가 최신으로 표시되지 않음
+ * - 다른 프로세스에서 바뀐 것은 알 수 없으므로 각 구조의 주기적 재적재는 그대로 둠
+ */
+@Slf4j
+@Component
+public class MemberBulkChanges extends SimpleJdbcEventListener {
+
+    private static final Pattern LEADING_COMMENT = Pattern.compile("^\\s*/\\*.*?\\*/", Pattern.DOTALL); //use_sql_comments
+    private static final Pattern MUTATION = Pattern.compile(
+            "^\\s*(update|delete\\s+from|insert\\s+into|merge\\s+into|truncate\\s+table)\\s+(member|team)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern ENTITY_STATEMENT = Pattern.compile(
+            "^\\s*(update\\s+\\w+\\s+set\\s+[^()]*|delete\\s+from\\s+\\w+)\\s+where\\s+(member_id|team_id)\\s*=\\s*\\?\\s*$"
+                    + "|^\\s*insert\\s+into\\s+\\w+\\s*\\([^)]*\\)\\s*values\\s*\\([?,\\s]*\\)\\s*$",
+            Pattern.CASE_INSENSITIVE);
+
+    private final ObjectProvider<MemberChangeListener> listeners; //리스너가 이 빈을 주입받으므로 지연 조회
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberBulkChanges(ObjectProvider<MemberChangeListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        String sql = statementInformation.getSql();
+        if (sql == null) {
+            return;
+        }
+        sql = LEADING_COMMENT.matcher(sql).replaceFirst("");
+        if (MUTATION.matcher(sql).find() && !ENTITY_STATEMENT.matcher(sql).matches()) {
+            changed();
+        }
+    }
+
+    /**
+     * 현재 generation. 메모리 구조는 적재 전에 읽어 두고 fresh(...)로 비교
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public boolean fresh(long builtGeneration) {
+        return builtGeneration == generation.get();
+    }
+
+    /**
+     * 메모리 구조를 바로 쓰지 않게만 함 (재적재 알림 없음). 변경을 시작하기 전에 호출
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * 이벤트 없이 member/team을 바꿨음을 알림
+     * - 트랜잭션 안이면 트랜잭션이 끝난 뒤 한 번만 알림 (같은 트랜잭션의 여러 statement를 모음)
+     */
+    public void changed() {
+        generation.incrementAndGet();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MemberBulkChanges.this);
+                publish();
+            }
+        });
+    }
+
+    private void publish() {
+        generation.incrementAndGet();
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onBulkChange();
+            } catch (RuntimeException e) {
+                log.warn("bulk change listener failed. listener={}", listener, e);
+            }
+        });
+    }
+}
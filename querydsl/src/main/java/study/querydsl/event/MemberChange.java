@@ -0,0 +1,38 @@
+package study.querydsl.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 커밋된 회원 변경 한 건 (엔티티가 아닌 값 스냅샷)
+ * - INSERT: before == null, DELETE: after == null
+ * - UPDATE인데 이전 상태를 알 수 없으면 before == null
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class MemberChange {
+
+    public enum Type { INSERT, UPDATE, DELETE }
+
+    private final Type type;
+    private final Long memberId;
+    private final MemberState before;
+    private final MemberState after;
+
+    public boolean teamChanged() {
+        Long beforeTeamId = before != null ? before.getTeamId() : null;
+        Long afterTeamId = after != null ? after.getTeamId() : null;
+        return beforeTeamId == null ? afterTeamId != null : !beforeTeamId.equals(afterTeamId);
+    }
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class MemberState {
+        private final String username;
+        private final int age;
+        private final Long teamId; //팀 없으면 null
+    }
+}
@@ -0,0 +1,19 @@
+package study.querydsl.event;
+
+/**
+ * 회원/팀 변경이 커밋된 뒤 호출되는 리스너 (MemberChangePublisher가 빈을 모두 찾아 호출)
+ * - 커밋한 스레드에서 동기로 호출되므로 오래 걸리는 작업은 별도 스레드로 넘길 것
+ * - JPQL/네이티브 벌크 연산은 엔티티 이벤트가 없으므로 전달되지 않음 -> 대신 끝난 뒤 onBulkChange (MemberBulkChanges)
+ */
+public interface MemberChangeListener {
+
+    void onMemberChange(MemberChange change);
+
+    //팀 추가/이름 변경
+    default void onTeamChange(Long teamId, String name) {
+    }
+
+    //이벤트 없는 벌크 변경이 끝남 (어느 행이 바뀌었는지 모름)
+    default void onBulkChange() {
+    }
+}
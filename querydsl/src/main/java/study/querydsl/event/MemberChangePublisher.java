@@ -0,0 +1,134 @@
+package study.querydsl.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.MemberChange.MemberState;
+
+/**
+ * Member/Team 엔티티 변경을 커밋 후에 MemberChangeListener 빈들에게 전달
+ * - Hibernate post-commit 이벤트라 롤백된 변경은 전달되지 않음
+ * - 엔티티 대신 값 스냅샷(MemberChange)을 넘기므로 리스너는 세션/지연 로딩과 무관
+ * - 리스너 예외는 로그만 남김 (이미 커밋된 트랜잭션에 영향을 주지 않도록)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberChangePublisher implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<MemberChangeListener> listeners; //리스너가 repository를 주입받아도 순환되지 않도록 지연 조회
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long id = (Long) event.getId();
+            publish(new MemberChange(MemberChange.Type.INSERT, id, null, state(event.getPersister(), event.getState())));
+        } else if (event.getEntity() instanceof Team) {
+            publishTeam((Long) event.getId(), event.getPersister(), event.getState());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            //merge 등으로 이전 상태를 모르면 before == null
+            MemberState before = event.getOldState() != null ? state(event.getPersister(), event.getOldState()) : null;
+            publish(new MemberChange(MemberChange.Type.UPDATE, (Long) event.getId(), before,
+                    state(event.getPersister(), event.getState())));
+        } else if (event.getEntity() instanceof Team) {
+            publishTeam((Long) event.getId(), event.getPersister(), event.getState());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            MemberState before = event.getDeletedState() != null ? state(event.getPersister(), event.getDeletedState()) : null;
+            publish(new MemberChange(MemberChange.Type.DELETE, (Long) event.getId(), before, null));
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Member.class || type == Team.class;
+    }
+
+    private void publish(MemberChange change) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onMemberChange(change);
+            } catch (RuntimeException e) {
+                log.warn("member change listener failed. listener={}, change={}", listener, change, e);
+            }
+        });
+    }
+
+    private void publishTeam(Long teamId, EntityPersister persister, Object[] state) {
+        String name = (String) state[propertyIndex(persister, "name")];
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onTeamChange(teamId, name);
+            } catch (RuntimeException e) {
+                log.warn("team change listener failed. listener={}, teamId={}", listener, teamId, e);
+            }
+        });
+    }
+
+    private static MemberState state(EntityPersister persister, Object[] state) {
+        String username = (String) state[propertyIndex(persister, "username")];
+        Integer age = (Integer) state[propertyIndex(persister, "age")];
+        Team team = (Team) state[propertyIndex(persister, "team")];
+        //프록시여도 getId()는 초기화하지 않음
+        return new MemberState(username, age != null ? age : 0, team != null ? team.getId() : null);
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(property)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("no property " + property + " in " + persister.getEntityName());
+    }
+}
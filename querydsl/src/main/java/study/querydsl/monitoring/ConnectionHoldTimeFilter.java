@@ -0,0 +1,58 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 한 건이 JDBC 커넥션을 얼마나 오래 잡고 있었는지 기록
+ * - 커넥션을 쓴 요청만 Timer(http.server.requests.connection.hold, method/uri 태그)에 요청별 합계를 기록
+ *   uri는 매핑된 패턴이라 태그 값 수가 엔드포인트 수로 제한됨
+ * - 요청별 상세는 debug 로그 (local 프로필 등에서 study.*.monitoring 로그 레벨을 올려서 확인)
+ * - OSIV가 켜져 있으면 JSON 직렬화가 끝날 때까지 커넥션을 잡고 있으므로 이 값이 응답 시간과 거의 같아짐
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConnectionHoldTimeFilter extends OncePerRequestFilter {
+
+    private final ConnectionHoldTimeListener listener;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        listener.beginRequest();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long[] held = listener.endRequest();
+            if (held != null && held[1] > 0) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Timer.builder("http.server.requests.connection.hold")
+                        .description("Total JDBC connection hold time per request")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                        .register(meterRegistry)
+                        .record(held[0], TimeUnit.NANOSECONDS);
+                if (log.isDebugEnabled()) {
+                    log.debug("{} {} connection hold={}ms ({} connections) request={}ms",
+                            request.getMethod(), request.getRequestURI(),
+                            held[0] / 1_000_000.0, held[1], (System.nanoTime() - start) / 1_000_000.0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package study.querydsl.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import study.querydsl.repository.QueryBudget;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 검색 엔드포인트별 쿼리 시간 예산(QueryBudget)을 요청 스레드에 묶음
+ * - 예산을 넘긴 쿼리는 JDBC statement timeout으로 중단 -> MemberController가 504
+ * - 비동기 응답(/v1/members/stream)만 클라이언트가 끊거나 async timeout이 나면 실행 중인 statement를 취소
+ * - 동기 엔드포인트(/v1/members, /v1/members/batch, /v2 ~ /v4)는 연결이 끊겨도 취소되지 않음
+ *   핸들러가 블로킹된 동안에는 톰캣이 연결 끊김을 알 수 없어서, 끊긴 요청도 예산(search 3s, batch 5s 등)을 다 쓸 수 있음
+ *   -> 예산이 곧 상한이므로 동기 엔드포인트 예산은 짧게 유지. 합쳐진 검색(MemberSearchCoalescer)을 기다리는 요청도 자기 예산까지만 기다림
+ * - 메트릭: member.search.query.budget.exceeded{endpoint, reason=timeout|cancelled}
+ */
+@Component
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final String METRIC = "member.search.query.budget.exceeded";
+
+    private final Map<String, Duration> budgets;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry,
+                             @Value("${member.search.query-budget.search:3s}") Duration search,
+                             @Value("${member.search.query-budget.stream:5m}") Duration stream,
+                             @Value("${member.search.query-budget.batch:5s}") Duration batch,
+                             @Value("${member.search.query-budget.page:3s}") Duration page,
+                             @Value("${member.search.query-budget.seek:1s}") Duration seek) {
+        this.meterRegistry = meterRegistry;
+        this.budgets = Map.of(
+                "/v1/members", search,
+                "/v1/members/stream", stream,
+                "/v1/members/batch", batch,
+                "/v2/members", page,
+                "/v3/members", page,
+                "/v4/members", seek);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !budgets.containsKey(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String endpoint = request.getRequestURI();
+        QueryBudget budget = QueryBudget.of(budgets.get(endpoint));
+        try (QueryBudget.Binding ignored = QueryBudget.bind(budget)) {
+            filterChain.doFilter(request, response);
+        }
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    recordTimeout(endpoint, response);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    cancel(endpoint, budget);
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    cancel(endpoint, budget);
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            recordTimeout(endpoint, response);
+        }
+    }
+
+    private void cancel(String endpoint, QueryBudget budget) {
+        if (!budget.isCancelled()) {
+            budget.cancel();
+            meterRegistry.counter(METRIC, "endpoint", endpoint, "reason", "cancelled").increment();
+        }
+    }
+
+    private void recordTimeout(String endpoint, HttpServletResponse response) {
+        if (response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+            meterRegistry.counter(METRIC, "endpoint", endpoint, "reason", "timeout").increment();
+        }
+    }
+}
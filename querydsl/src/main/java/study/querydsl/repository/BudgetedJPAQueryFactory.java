@@ -0,0 +1,41 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.QueryModifiers;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * 만드는 JPAQuery마다 현재 요청의 QueryBudget을 statement timeout으로 적용하는 JPAQueryFactory
+ * - select/selectFrom/from 모두 query()를 거치므로 여기만 바꾸면 됨
+ */
+public class BudgetedJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager em;
+
+    public BudgetedJPAQueryFactory(EntityManager em) {
+        super(em);
+        this.em = em;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+        return new BudgetedJPAQuery<Void>(em);
+    }
+
+    static class BudgetedJPAQuery<T> extends JPAQuery<T> {
+
+        BudgetedJPAQuery(EntityManager em) {
+            super(em);
+        }
+
+        //fetch/fetchOne/stream/count 모두 여기서 jakarta.persistence.Query를 만듦
+        @Override
+        protected Query createQuery(QueryModifiers modifiers, boolean forCount) {
+            Query query = super.createQuery(modifiers, forCount);
+            QueryBudget.apply(query);
+            return query;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package study.querydsl.repository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.event.InMemoryReads;
+import study.querydsl.event.MemberBulkChanges;
+import study.querydsl.event.MemberChange;
+import study.querydsl.event.MemberChangeListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 나이 -> member id, 팀 -> member id 압축 비트맵(Roaring) 인덱스
+ * - ageGoe/ageLoe: 범위 안 나이 비트맵들의 OR, teamName: 같은 이름 팀 비트맵들의 OR, 둘 다면 AND
+ * - 나이/팀 조건만 있는 검색의 total은 DB 없이 비트맵 cardinality로 응답 (searchCount)
+ * - 결과가 작으면 content 쿼리에 후보 id로 넘김 (MemberSearchQueryCache)
+ * - 시작 시 전체를 읽어 만들고 이후 커밋 이벤트로 갱신. 적재 중 들어온 이벤트는 모았다가 적재 후 다시 적용
+ * - 벌크 JPQL/네이티브 변경은 이벤트가 없음 -> MemberBulkChanges가 감지하면 다시 적재가 끝날 때까지 사용하지 않고(null)
+ *   끝난 뒤 별도 스레드에서 다시 적재. 감지할 수 없는 변경(다른 프로세스 등)은 rebuild-interval마다 다시 만들어 보정
+ */
+@Slf4j
+@Component
+public class MemberBitmapIndex implements MemberChangeListener {
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final MemberBulkChanges bulkChanges;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-bitmap-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final NavigableMap<Integer, Roaring64Bitmap> byAge = new TreeMap<>();
+    private final Map<Long, Roaring64Bitmap> byTeam = new HashMap<>();
+    private final Map<Long, String> teamNames = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Object> buffered = new ArrayList<>(); //적재 중 받은 MemberChange / TeamChange
+    private boolean loading;
+    private volatile boolean ready;
+    private volatile long builtGeneration; //적재를 시작할 때의 MemberBulkChanges generation
+
+    public MemberBitmapIndex(EntityManager em, PlatformTransactionManager transactionManager,
+                             MemberBulkChanges bulkChanges) {
+        this.em = em;
+        this.bulkChanges = bulkChanges;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${member.bitmap-index.rebuild-interval:PT5M}",
+            fixedDelayString = "${member.bitmap-index.rebuild-interval:PT5M}")
+    public void scheduledRebuild() {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void onBulkChange() {
+        if (ready && rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildScheduled.set(false); //적재 중 다시 온 벌크 변경은 한 번 더 적재
+                rebuild();
+            });
+        }
+    }
+
+    //벌크 변경으로 예약된 재적재가 끝날 때까지 대기 (테스트용)
+    void awaitRebuilt() throws Exception {
+        rebuilder.submit(() -> {
+        }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * DB에서 새로 만들어 통째로 교체
+     * - 적재하는 동안에도 기존 비트맵은 이벤트로 계속 갱신되며 조회에 쓰임
+     * - 적재 중 받은 이벤트는 새 비트맵에 다시 적용 (이후 상태로 옮기기라 스냅샷에 이미 있어도 같은 결과)
+     */
+    synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long generation = bulkChanges.generation(); //읽기 전에 (읽는 도중 벌크 변경이 있으면 적재 결과를 쓰지 않음)
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        //락 밖에서 따로 만든 뒤 교체 (적재 중에도 커밋 스레드의 이벤트 처리가 막히지 않도록)
+        NavigableMap<Integer, Roaring64Bitmap> loadedByAge = new TreeMap<>();
+        Map<Long, Roaring64Bitmap> loadedByTeam = new HashMap<>();
+        Map<Long, String> loadedTeamNames = new HashMap<>();
+        readOnlyTx.executeWithoutResult(status -> {
+            em.createQuery("select t.id, t.name from Team t", Object[].class).getResultList()
+                    .forEach(row -> loadedTeamNames.put((Long) row[0], (String) row[1]));
+            try (Stream<Object[]> rows = em.createQuery(
+                            "select m.id, m.age, t.id from Member m left join m.team t", Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                    .getResultStream()) {
+                rows.forEach(row -> add(loadedByAge, loadedByTeam, (Long) row[0], (Integer) row[1], (Long) row[2]));
+            }
+        });
+        loadedByAge.values().forEach(Roaring64Bitmap::runOptimize);
+        loadedByTeam.values().forEach(Roaring64Bitmap::runOptimize);
+
+        lock.writeLock().lock();
+        try {
+            byAge.clear();
+            byAge.putAll(loadedByAge);
+            byTeam.clear();
+            byTeam.putAll(loadedByTeam);
+            teamNames.clear();
+            teamNames.putAll(loadedTeamNames);
+            buffered.forEach(this::apply);
+            buffered.clear();
+            loading = false;
+            builtGeneration = generation;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("member bitmap index built. ages={}, teams={}, elapsed={}ms",
+                byAge.size(), byTeam.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 나이/팀 조건에 맞는 member id 집합 (username 조건은 보지 않음)
+     * @return 호출한 쪽이 소유하는 새 비트맵. 나이/팀 조건이 없거나 사용할 수 없으면(적재 전, 벌크 변경 뒤 재적재 전) null
+     */
+    public Roaring64Bitmap match(MemberSearchCondition condition) {
+        boolean byTeamName = hasText(condition.getTeamName());
+        boolean byAgeRange = condition.getAgeGoe() != null || condition.getAgeLoe() != null;
+        if (!ready || !bulkChanges.fresh(builtGeneration) || !InMemoryReads.allowed() || (!byTeamName && !byAgeRange)) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap result = null;
+            if (byAgeRange) {
+                int goe = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+                int loe = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+                result = new Roaring64Bitmap();
+                if (goe <= loe) {
+                    for (Roaring64Bitmap ids : byAge.subMap(goe, true, loe, true).values()) {
+                        result.or(ids);
+                    }
+                }
+            }
+            if (byTeamName) {
+                Roaring64Bitmap team = new Roaring64Bitmap();
+                teamNames.forEach((teamId, name) -> {
+                    Roaring64Bitmap ids = byTeam.get(teamId);
+                    if (ids != null && condition.getTeamName().equals(name)) {
+                        team.or(ids);
+                    }
+                });
+                if (result == null) {
+                    result = team;
+                } else {
+                    result.and(team);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onMemberChange(MemberChange change) {
+        write(change);
+    }
+
+    @Override
+    public void onTeamChange(Long teamId, String name) {
+        write(new TeamChange(teamId, name));
+    }
+
+    private void write(Object change) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(change);
+            }
+            if (loading) {
+                buffered.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //모두 "이후 상태로 옮기기"라서 적재 결과에 다시 적용해도 같은 결과
+    private void apply(Object next) {
+        if (next instanceof TeamChange team) {
+            teamNames.put(team.teamId(), team.name());
+            return;
+        }
+        MemberChange change = (MemberChange) next;
+        long id = change.getMemberId();
+        if (change.getBefore() != null) {
+            remove(id, change.getBefore().getAge(), change.getBefore().getTeamId());
+        } else if (change.getType() != MemberChange.Type.INSERT) {
+            removeEverywhere(id); //이전 상태를 모름
+        }
+        if (change.getAfter() != null) {
+            add(byAge, byTeam, id, change.getAfter().getAge(), change.getAfter().getTeamId());
+        }
+    }
+
+    private static void add(Map<Integer, Roaring64Bitmap> byAge, Map<Long, Roaring64Bitmap> byTeam,
+                            long id, int age, Long teamId) {
+        byAge.computeIfAbsent(age, a -> new Roaring64Bitmap()).addLong(id);
+        if (teamId != null) {
+            byTeam.computeIfAbsent(teamId, t -> new Roaring64Bitmap()).addLong(id);
+        }
+    }
+
+    private void remove(long id, int age, Long teamId) {
+        Roaring64Bitmap ages = byAge.get(age);
+        if (ages != null) {
+            ages.removeLong(id);
+        }
+        if (teamId != null) {
+            Roaring64Bitmap team = byTeam.get(teamId);
+            if (team != null) {
+                team.removeLong(id);
+            }
+        }
+    }
+
+    private void removeEverywhere(long id) {
+        byAge.values().forEach(ids -> ids.removeLong(id));
+        byTeam.values().forEach(ids -> ids.removeLong(id));
+    }
+
+    private record TeamChange(Long teamId, String name) {
+    }
+}
@@ -6,6 +6,7 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
 import study.querydsl.dto.MemberSearchCondition;
 import study.querydsl.dto.MemberTeamDto;
@@ -14,6 +15,7 @@ import study.querydsl.entity.Member;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.*;
@@ -23,8 +25,11 @@ import static study.querydsl.entity.QTeam.team;
 @RequiredArgsConstructor
 public class MemberJpaRepository {
 
+    static final int FETCH_SIZE = 500;
+
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberUsernameIndex usernameIndex;
 
 //    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory) {
 //        this.em = em;
@@ -120,17 +125,41 @@ public class MemberJpaRepository {
                         usernameEq(condition.getUsername()),
                         teamNameEq(condition.getTeamName()),
                         ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
+                        ageLoe(condition.getAgeLoe()),
+                        usernameIndex.usernameMatches(condition) //시작/포함 검색 (n-gram 인덱스 후보 + like)
                 )                      // 위에서 만든 조건(builder)을 where절로 적용
                 .fetch();
     }
 
+    /**
+     * 조건에 맞는 회원을 스트림으로 조회 (결과 전체를 List로 만들지 않음)
+     * - fetch size 힌트로 JDBC 드라이버가 FETCH_SIZE 행씩 가져오게 함
+     * - DTO 프로젝션이라 영속성 컨텍스트에 엔티티가 쌓이지 않음
+     * - 트랜잭션 안에서 소비하고 반드시 close 할 것 (try-with-resources) -> 커서/커넥션 반납
+     */
+    public Stream<MemberTeamDto> searchStream(MemberSearchCondition condition) {
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        usernameIndex.usernameMatches(condition) //시작/포함 검색 (n-gram 인덱스 후보 + like)
+                )
+                .orderBy(member.id.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .stream();
+    }
+
     private BooleanExpression usernameEq(String username) {
         return hasText(username) ? member.username.eq(username) : null;
     }
 
     private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? member.team.name.eq(teamName) : null;
+        return hasText(teamName) ? team.name.eq(teamName) : null; //left join 한 team 별칭 사용 (member.team.name은 조인을 한 번 더 만듦)
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
@@ -0,0 +1,410 @@
+package study.querydsl.repository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.event.InMemoryReads;
+import study.querydsl.event.MemberBulkChanges;
+import study.querydsl.event.MemberChange;
+import study.querydsl.event.MemberChangeListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 회원 + 팀을 컬럼 배열로 들고 있는 읽기 모델 (member.read-model.enabled=true 일 때만)
+ * - MemberService.search(/v1/members)가 DB left join 대신 여기서 조건을 평가
+ * - 컬럼: id(long[]), age(int[]), username(String[]), 팀 참조(int[] -> 팀 사전 id/name)
+ * - 읽기는 volatile 스냅샷 하나만 읽으므로 락 없음. 스냅샷은 만들어진 뒤 바뀌지 않음
+ * - 쓰기는 단일 applier 스레드가 커밋 이벤트를 모아서 반영하고 새 스냅샷으로 교체 (copy-on-write)
+ *   스냅샷은 SEGMENT_ROWS행 단위 세그먼트 배열이라 바뀐 세그먼트만 새로 복사하고 나머지는 이전 스냅샷과 공유
+ *   -> 반영 한 번에 O(바뀐 세그먼트 수 x SEGMENT_ROWS + 세그먼트 수), 회원 수 전체 복사 없음
+ * - 시작 후 적재가 끝나기 전(warming)이나 쓰기 트랜잭션 안에서는 search가 null -> DB 조회
+ * - 벌크 JPQL/네이티브 변경은 이벤트가 없음 -> MemberBulkChanges가 감지하면 다시 적재가 끝날 때까지 null,
+ *   applier 스레드에서 다시 적재. 감지할 수 없는 변경은 rebuild-interval마다 다시 적재해서 보정
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.read-model.enabled", havingValue = "true")
+public class MemberReadModel implements MemberChangeListener {
+
+    static final int SEGMENT_SHIFT = 12;
+    static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final MemberBulkChanges bulkChanges;
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-read-model");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentLinkedQueue<Object> pending = new ConcurrentLinkedQueue<>(); //MemberChange 또는 TeamChange
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile Columns columns; //null이면 warming 중
+    private volatile long builtGeneration; //적재를 시작할 때의 MemberBulkChanges generation
+
+    private Builder builder; //applier 스레드 전용
+
+    public MemberReadModel(EntityManager em, PlatformTransactionManager transactionManager,
+                           MemberBulkChanges bulkChanges) {
+        this.em = em;
+        this.bulkChanges = bulkChanges;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        applier.execute(this::load);
+    }
+
+    @Scheduled(initialDelayString = "${member.read-model.rebuild-interval:PT5M}",
+            fixedDelayString = "${member.read-model.rebuild-interval:PT5M}")
+    public void scheduledRebuild() {
+        scheduleLoad();
+    }
+
+    @Override
+    public void onBulkChange() {
+        scheduleLoad();
+    }
+
+    /**
+     * @return 조건에 맞는 회원. 아직 사용할 수 없으면 null
+     */
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        Columns c = columns;
+        if (c == null || !bulkChanges.fresh(builtGeneration) || !InMemoryReads.allowed()) {
+            return null;
+        }
+
+        String username = hasText(condition.getUsername()) ? condition.getUsername() : null;
+        String prefix = hasText(condition.getUsernameStartsWith()) ? condition.getUsernameStartsWith() : null;
+        String infix = hasText(condition.getUsernameContains()) ? condition.getUsernameContains() : null;
+        int ageGoe = condition.getAgeGoe() != null ? condition.getAgeGoe() : Integer.MIN_VALUE;
+        int ageLoe = condition.getAgeLoe() != null ? condition.getAgeLoe() : Integer.MAX_VALUE;
+        boolean[] teamMatch = null;
+        if (hasText(condition.getTeamName())) {
+            teamMatch = new boolean[c.teamIds.length];
+            for (int t = 0; t < teamMatch.length; t++) {
+                teamMatch[t] = condition.getTeamName().equals(c.teamNames[t]);
+            }
+        }
+
+        List<MemberTeamDto> result = new ArrayList<>();
+        for (Segment segment : c.segments) {
+            for (int i = 0; i < segment.size; i++) {
+                int age = segment.ages[i];
+                if (age < ageGoe || age > ageLoe) {
+                    continue;
+                }
+                int teamRef = segment.teamRefs[i];
+                if (teamMatch != null && (teamRef < 0 || !teamMatch[teamRef])) {
+                    continue;
+                }
+                String name = segment.usernames[i];
+                if (username != null && !username.equals(name)) {
+                    continue;
+                }
+                if (prefix != null && (name == null || !name.startsWith(prefix))) {
+                    continue;
+                }
+                if (infix != null && (name == null || !name.contains(infix))) {
+                    continue;
+                }
+                result.add(new MemberTeamDto(segment.ids[i], name, age,
+                        teamRef >= 0 ? c.teamIds[teamRef] : null, teamRef >= 0 ? c.teamNames[teamRef] : null));
+            }
+        }
+        return result;
+    }
+
+    public boolean isReady() {
+        return columns != null;
+    }
+
+    @Override
+    public void onMemberChange(MemberChange change) {
+        pending.add(change);
+        scheduleDrain();
+    }
+
+    @Override
+    public void onTeamChange(Long teamId, String name) {
+        pending.add(new TeamChange(teamId, name));
+        scheduleDrain();
+    }
+
+    //지금까지 받은 변경이 스냅샷에 반영될 때까지 대기 (테스트용)
+    void awaitApplied() throws Exception {
+        applier.submit(() -> {
+        }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        applier.shutdownNow();
+    }
+
+    /**
+     * DB에서 전체를 읽어 새 Builder로 교체 (applier 스레드)
+     * - 적재하는 동안 drain은 멈추고 기존 스냅샷이 조회에 쓰임. 그동안 온 이벤트는 적재 후 drain에서 반영
+     */
+    private void load() {
+        rebuildScheduled.set(false); //적재 중 다시 온 벌크 변경은 한 번 더 적재
+        long start = System.currentTimeMillis();
+        long generation = bulkChanges.generation(); //읽기 전에 (읽는 도중 벌크 변경이 있으면 적재 결과를 쓰지 않음)
+        Builder loaded = new Builder();
+        readOnlyTx.executeWithoutResult(status -> {
+            em.createQuery("select t.id, t.name from Team t", Object[].class).getResultList()
+                    .forEach(row -> loaded.putTeam((Long) row[0], (String) row[1]));
+            try (Stream<Object[]> rows = em.createQuery(
+                            "select m.id, m.username, m.age, t.id from Member m left join m.team t", Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                    .getResultStream()) {
+                rows.forEach(row -> loaded.upsert((Long) row[0], (String) row[1], (Integer) row[2], (Long) row[3]));
+            }
+        });
+        builder = loaded;
+        drain(true); //적재 중에 들어온 변경 반영 (모두 "이후 상태로 덮어쓰기"라 중복 적용돼도 같은 결과)
+        builtGeneration = generation;
+        log.info("member read model loaded. members={}, elapsed={}ms", columns.size, System.currentTimeMillis() - start);
+    }
+
+    private void scheduleLoad() {
+        if (columns != null && rebuildScheduled.compareAndSet(false, true)) {
+            applier.execute(this::load);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            applier.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drain(false);
+    }
+
+    //snapshot: 바뀐 것이 없어도 스냅샷을 새로 만듦 (Builder를 교체한 뒤)
+    private void drain(boolean snapshot) {
+        drainScheduled.set(false);
+        if (builder == null) {
+            return; //적재 중. load()가 끝나면서 반영
+        }
+        boolean changed = snapshot || columns == null;
+        Object next;
+        while ((next = pending.poll()) != null) {
+            if (next instanceof MemberChange change) {
+                apply(change);
+            } else if (next instanceof TeamChange team) {
+                builder.putTeam(team.teamId(), team.name());
+            }
+            changed = true;
+        }
+        if (changed) {
+            columns = builder.snapshot();
+        }
+    }
+
+    private void apply(MemberChange change) {
+        if (change.getType() == MemberChange.Type.DELETE) {
+            builder.delete(change.getMemberId());
+            return;
+        }
+        MemberChange.MemberState after = change.getAfter();
+        builder.upsert(change.getMemberId(), after.getUsername(), after.getAge(), after.getTeamId());
+    }
+
+    private record TeamChange(Long teamId, String name) {
+    }
+
+    /**
+     * 읽기 전용 스냅샷. 바뀌지 않은 세그먼트와 팀 사전은 이전 스냅샷과 같은 객체를 공유
+     */
+    private record Columns(int size, Segment[] segments, long[] teamIds, String[] teamNames) {
+    }
+
+    /**
+     * Builder의 행 SEGMENT_ROWS개 구간에서 살아 있는 행만 복사한 것 (만들어진 뒤 바뀌지 않음)
+     */
+    private record Segment(int size, long[] ids, String[] usernames, int[] ages, int[] teamRefs) {
+    }
+
+    /**
+     * applier 스레드만 쓰는 가변 컬럼
+     * - 삭제는 구멍으로 남겨 두었다가 1/4을 넘으면 압축 (행이 움직이므로 모든 세그먼트를 다시 복사)
+     * - 팀 이름은 팀 사전에 한 번만 저장 (회원은 사전 인덱스만 가짐)
+     * - 마지막 스냅샷 이후 바뀐 세그먼트를 dirty로 기록
+     */
+    private static final class Builder {
+        long[] ids = new long[1024];
+        String[] usernames = new String[1024];
+        int[] ages = new int[1024];
+        int[] teamRefs = new int[1024];
+        boolean[] alive = new boolean[1024];
+        int size;
+        int dead;
+        final Map<Long, Integer> rowOf = new HashMap<>();
+
+        final Map<Long, Integer> teamRefOf = new HashMap<>();
+        long[] teamIds = new long[64];
+        String[] teamNames = new String[64];
+        int teamCount;
+
+        final BitSet dirty = new BitSet();
+        Segment[] published = new Segment[0];
+        boolean teamsDirty = true;
+        long[] publishedTeamIds;
+        String[] publishedTeamNames;
+
+        void upsert(Long id, String username, int age, Long teamId) {
+            Integer row = rowOf.get(id);
+            if (row == null) {
+                if (size == ids.length) {
+                    grow();
+                }
+                row = size++;
+                rowOf.put(id, row);
+                ids[row] = id;
+                alive[row] = true;
+            }
+            usernames[row] = username;
+            ages[row] = age;
+            teamRefs[row] = teamId != null ? teamRef(teamId) : -1;
+            dirty.set(row >> SEGMENT_SHIFT);
+        }
+
+        void delete(Long id) {
+            Integer row = rowOf.remove(id);
+            if (row == null) {
+                return;
+            }
+            alive[row] = false;
+            usernames[row] = null;
+            dirty.set(row >> SEGMENT_SHIFT);
+            if (++dead > size / 4) {
+                compact();
+            }
+        }
+
+        void putTeam(Long teamId, String name) {
+            teamNames[teamRef(teamId)] = name;
+            teamsDirty = true;
+        }
+
+        Columns snapshot() {
+            int count = (size + SEGMENT_ROWS - 1) >> SEGMENT_SHIFT;
+            Segment[] segments = Arrays.copyOf(published, count);
+            int live = 0;
+            for (int s = 0; s < count; s++) {
+                if (segments[s] == null || dirty.get(s)) {
+                    segments[s] = segment(s);
+                }
+                live += segments[s].size();
+            }
+            dirty.clear();
+            published = segments;
+            if (teamsDirty) {
+                publishedTeamIds = Arrays.copyOf(teamIds, teamCount);
+                publishedTeamNames = Arrays.copyOf(teamNames, teamCount);
+                teamsDirty = false;
+            }
+            return new Columns(live, segments, publishedTeamIds, publishedTeamNames);
+        }
+
+        private Segment segment(int s) {
+            int from = s << SEGMENT_SHIFT;
+            int to = Math.min(size, from + SEGMENT_ROWS);
+            int live = 0;
+            for (int i = from; i < to; i++) {
+                if (alive[i]) {
+                    live++;
+                }
+            }
+            long[] liveIds = new long[live];
+            String[] liveNames = new String[live];
+            int[] liveAges = new int[live];
+            int[] liveTeamRefs = new int[live];
+            for (int i = from, j = 0; i < to; i++) {
+                if (alive[i]) {
+                    liveIds[j] = ids[i];
+                    liveNames[j] = usernames[i];
+                    liveAges[j] = ages[i];
+                    liveTeamRefs[j] = teamRefs[i];
+                    j++;
+                }
+            }
+            return new Segment(live, liveIds, liveNames, liveAges, liveTeamRefs);
+        }
+
+        //처음 보는 팀은 이름 없이 등록해 두고 팀 이벤트가 오면 채움
+        private int teamRef(Long teamId) {
+            Integer ref = teamRefOf.get(teamId);
+            if (ref == null) {
+                if (teamCount == teamIds.length) {
+                    teamIds = Arrays.copyOf(teamIds, teamCount * 2);
+                    teamNames = Arrays.copyOf(teamNames, teamCount * 2);
+                }
+                ref = teamCount++;
+                teamRefOf.put(teamId, ref);
+                teamIds[ref] = teamId;
+                teamsDirty = true;
+            }
+            return ref;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            teamRefs = Arrays.copyOf(teamRefs, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+        }
+
+        private void compact() {
+            int j = 0;
+            for (int i = 0; i < size; i++) {
+                if (alive[i]) {
+                    ids[j] = ids[i];
+                    usernames[j] = usernames[i];
+                    ages[j] = ages[i];
+                    teamRefs[j] = teamRefs[i];
+                    alive[j] = true;
+                    rowOf.put(ids[j], j);
+                    j++;
+                }
+            }
+            Arrays.fill(alive, j, size, false);
+            Arrays.fill(usernames, j, size, null);
+            size = j;
+            dead = 0;
+            published = new Segment[0]; //행 위치가 바뀌었으므로 모두 다시 복사
+        }
+    }
+}
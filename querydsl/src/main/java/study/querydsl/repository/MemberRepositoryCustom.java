@@ -3,6 +3,9 @@ package study.querydsl.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSeekCursor;
+import study.querydsl.dto.MemberSeekKey;
+import study.querydsl.dto.MemberSeekPage;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 
@@ -13,5 +16,9 @@ public interface MemberRepositoryCustom {
     List<MemberTeamDto> search(MemberSearchCondition condition);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+    List<MemberTeamDto> searchContent(MemberSearchCondition condition, Pageable pageable);
+    long searchCount(MemberSearchCondition condition);
+    List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions, int maxRows);
+    MemberSeekPage searchSeek(MemberSearchCondition condition, MemberSeekKey sortKey, MemberSeekCursor after, int size);
 
 }
@@ -1,17 +1,26 @@
 package study.querydsl.repository;
 
-import com.querydsl.core.QueryResults;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
 import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSeekCursor;
+import study.querydsl.dto.MemberSeekKey;
+import study.querydsl.dto.MemberSeekPage;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.dto.QMemberTeamDto;
+import study.querydsl.event.InMemoryReads;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.springframework.util.StringUtils.hasText;
@@ -20,67 +29,44 @@ import static study.querydsl.entity.QTeam.team;
 
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    //비트맵 인덱스만으로 답할 수 있는 조건 모양
+    private static final int BITMAP_SHAPES =
+            MemberSearchQueryCache.TEAM_NAME | MemberSearchQueryCache.AGE_GOE | MemberSearchQueryCache.AGE_LOE;
 
-
+    private final MemberSearchQueryCache searchQueryCache;
+    private final MemberRowCounter rowCounter;
+    private final MemberSearchCountCache countCache;
     private final JPAQueryFactory queryFactory;
-
-    public MemberRepositoryImpl(EntityManager em) {
-        this.queryFactory = new JPAQueryFactory(em);
+    private final MemberUsernameIndex usernameIndex;
+    private final MemberBitmapIndex bitmapIndex;
+
+    public MemberRepositoryImpl(EntityManager em, MemberRowCounter rowCounter, MemberSearchCountCache countCache,
+                                JPAQueryFactory queryFactory, MemberUsernameIndex usernameIndex,
+                                MemberBitmapIndex bitmapIndex) {
+        this.searchQueryCache = new MemberSearchQueryCache(em, usernameIndex, bitmapIndex);
+        this.rowCounter = rowCounter;
+        this.countCache = countCache;
+        this.queryFactory = queryFactory;
+        this.usernameIndex = usernameIndex;
+        this.bitmapIndex = bitmapIndex;
     }
 
+    /**
+     * 조건 모양별로 캐시된 JPQL 템플릿에 파라미터만 바인딩해서 실행 (MemberSearchQueryCache)
+     */
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id.as("memberId"),     // 회원 ID
-                        member.username,              // 회원 이름
-                        member.age,                   // 회원 나이
-                        team.id.as("teamId"),         // 팀 ID
-                        team.name.as("teamName")      // 팀 이름
-                ))
-                .from(member)                        // member 테이블 기준으로 조회 시작
-                .leftJoin(member.team, team)         // member와 team 테이블을 left join
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )                      // 위에서 만든 조건(builder)을 where절로 적용
-                .fetch();
+        return searchQueryCache.fetch(condition, List.of(), 0, 0);
     }
 
     /**
-     * 단순한 페이징, fetchResults() 사용
+     * 단순한 페이징, 데이터 조회 + count 쿼리를 항상 함께 실행
      */
     @Override
     public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition,
                                                 Pageable pageable) {
-        // QueryDSL의 fetchResults()를 사용하여 페이징 처리된 결과와 총 개수를 함께 조회
-        QueryResults<MemberTeamDto> results = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id,       // 회원 ID
-                        member.username, // 회원 이름
-                        member.age,      // 회원 나이
-                        team.id,         // 소속 팀 ID
-                        team.name        // 소속 팀 이름
-                ))
-                .from(member)                // member 테이블을 기준으로 조회 시작
-                .leftJoin(member.team, team) // member.team과 team 테이블을 LEFT JOIN
-                .where(                      // 검색 조건들 (null이면 무시됨)
-                        usernameEq(condition.getUsername()),   // 사용자 이름 조건
-                        teamNameEq(condition.getTeamName()),   // 팀 이름 조건
-                        ageGoe(condition.getAgeGoe()),         // 나이 >= 조건
-                        ageLoe(condition.getAgeLoe())          // 나이 <= 조건
-                )
-                .offset(pageable.getOffset())     // 몇 번째부터 가져올지 설정 (페이지 시작 위치)
-                .limit(pageable.getPageSize())    // 한 페이지당 몇 개 가져올지 설정
-                .fetchResults();                  // 결과와 총 개수를 함께 조회 (쿼리 2번 실행됨)
-
-        // 조회된 실제 데이터 리스트
-        List<MemberTeamDto> content = results.getResults();
-
-        // 전체 개수 (count 쿼리 결과)
-        long total = results.getTotal();
+        List<MemberTeamDto> content = fetchPage(condition, pageable);
+        long total = searchCount(condition);
 
         // PageImpl을 이용해 Page 객체로 반환 (스프링 데이터가 요구하는 형식)
         return new PageImpl<>(content, pageable, total);
@@ -96,65 +82,156 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                                                  Pageable pageable) {
 
         // 1. 실제 페이지에 보여줄 데이터 목록 조회 (limit, offset 적용)
-        List<MemberTeamDto> content = queryFactory
-                .select(new QMemberTeamDto(
-                        member.id,       // 회원 ID
-                        member.username, // 회원 이름
-                        member.age,      // 회원 나이
-                        team.id,         // 팀 ID
-                        team.name        // 팀 이름
-                ))
-                .from(member)                 // member 테이블 기준
-                .leftJoin(member.team, team)  // team 테이블과 LEFT JOIN
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .offset(pageable.getOffset())
-                .limit(pageable.getPageSize())
-                .fetch();
+        List<MemberTeamDto> content = fetchPage(condition, pageable);
 
-        // 3. 결과를 Page 객체로 감싸서 반환
+        // 2. 결과를 Page 객체로 감싸서 반환
         //   PageableExecutionUtils.getPage(...) 사용 이유:
         // - content의 개수가 페이지 사이즈보다 작으면 자동으로 count 쿼리를 생략함 → 성능 최적화
-        // - 직접 PageImpl로 감싸는 방식보다 불필요한 쿼리 최소화 가능
         // - 내부적으로 countSupplier는 필요할 때만 실행됨 (lazy evaluation)
+        return PageableExecutionUtils.getPage(content, pageable, () -> searchCount(condition));
+    }
 
-        // fetchCount() 제거 이유:
-        // - QueryDSL 5.0 이상에서 fetchCount()는 deprecated 되었고, 정확하지 않은 count를 반환할 수 있어 추천되지 않음
-        // - 대신 select(member.count()).fetchOne()을 명시적으로 사용하여 명확한 count 쿼리 작성
-
-        // null-safe 처리:
-        // - fetchOne()은 결과가 없을 경우 null을 반환하므로, count가 null이면 0L을 반환하도록 처리
-        return PageableExecutionUtils.getPage(content, pageable, () -> {
-            Long count = queryFactory
-                    .select(member.count())           // 정확한 count 쿼리
-                    .from(member)
-                    .leftJoin(member.team, team)
-                    .where(
-                            usernameEq(condition.getUsername()),
-                            teamNameEq(condition.getTeamName()),
-                            ageGoe(condition.getAgeGoe()),
-                            ageLoe(condition.getAgeLoe())
-                    )
-                    .fetchOne();                      // fetchCount() 대신 fetchOne() 사용
-            return count != null ? count : 0L;        // null-safe 처리
-        });
+    //content/count를 따로 실행하는 경우 (MemberService에서 count를 병렬 실행)
+    @Override
+    public List<MemberTeamDto> searchContent(MemberSearchCondition condition, Pageable pageable) {
+        return fetchPage(condition, pageable);
     }
 
+    //pageable의 정렬은 화이트리스트 컬럼만 허용, 항상 id로 순서 고정
+    private List<MemberTeamDto> fetchPage(MemberSearchCondition condition, Pageable pageable) {
+        return searchQueryCache.fetch(condition, MemberSearchSort.keysOf(pageable.getSort()),
+                pageable.getOffset(), pageable.getPageSize());
+    }
 
+    /**
+     * 전체 건수
+     * - 조건이 하나도 없으면 유지 중인 전체 행 수
+     * - 나이/팀 조건만 있으면 비트맵 인덱스의 cardinality (DB 조회 없음, 벌크 변경 뒤 재적재가 끝나기 전에는 아래로)
+     * - 그 외엔 조건별 캐시된 total (없으면 조인을 뺀 count(*) 쿼리)
+     * - 쓰기 트랜잭션 안에서는 미커밋 변경이 반영되도록 항상 쿼리
+     */
+    @Override
+    public long searchCount(MemberSearchCondition condition) {
+        if (!InMemoryReads.allowed()) {
+            return searchQueryCache.count(condition);
+        }
+        int shape = MemberSearchQueryCache.shapeOf(condition);
+        if (shape == 0) {
+            return rowCounter.count();
+        }
+        if ((shape & ~BITMAP_SHAPES) == 0) {
+            Roaring64Bitmap matched = bitmapIndex.match(condition);
+            if (matched != null) {
+                return matched.getLongCardinality();
+            }
+        }
+        return countCache.get(condition, () -> searchQueryCache.count(condition));
+    }
 
+    /**
+     * 여러 검색 조건을 쿼리 한 번으로 실행
+     * - 조건별 where 절을 OR로 묶어 합집합을 한 번에 읽고, 각 행을 조건마다 다시 평가해서 나눔
+     *   (UNION ALL과 달리 여러 조건에 걸리는 행도 한 번만 읽음)
+     * - 조건 없는 검색은 전체 조회가 되므로 받지 않음 (MemberService에서 검증, 여기서는 빼고 실행)
+     * - 합집합은 maxRows + 1건까지만 읽음
+     * @return conditions와 같은 순서의 결과 목록. 합집합이 maxRows를 넘으면 null
+     */
+    @Override
+    public List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions, int maxRows) {
+        BooleanBuilder any = new BooleanBuilder();
+        for (MemberSearchCondition condition : conditions) {
+            Predicate predicate = ExpressionUtils.allOf(
+                    usernameEq(condition.getUsername()),
+                    teamNameEq(condition.getTeamName()),
+                    ageGoe(condition.getAgeGoe()),
+                    ageLoe(condition.getAgeLoe()),
+                    usernameIndex.usernameMatches(condition));
+            if (predicate != null) {
+                any.or(predicate);
+            }
+        }
+        if (!any.hasValue()) {
+            return conditions.stream().<List<MemberTeamDto>>map(condition -> List.of()).toList();
+        }
+
+        List<MemberTeamDto> rows = queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(any)
+                .orderBy(member.id.asc())
+                .limit(maxRows + 1L)
+                .fetch();
+        if (rows.size() > maxRows) {
+            return null;
+        }
+
+        List<List<MemberTeamDto>> result = new ArrayList<>(conditions.size());
+        for (MemberSearchCondition condition : conditions) {
+            List<MemberTeamDto> matched = new ArrayList<>();
+            for (MemberTeamDto row : rows) {
+                if (condition.matches(row)) {
+                    matched.add(row);
+                }
+            }
+            result.add(matched);
+        }
+        return result;
+    }
+
+    /**
+     * 키셋(seek) 페이징
+     * - offset 대신 이전 페이지 마지막 행의 (정렬 키, member.id) 다음부터 읽으므로 깊은 페이지도 비용이 같음
+     * - (key, id) > (k, lastId)를 key >= k and (key > k or id > lastId)로 풀어 씀
+     *   -> 인덱스(age, member_id)에서 key >= k 범위 스캔으로 바로 시작 (행 값 비교는 DB마다 인덱스 사용이 다름)
+     * - size + 1건을 읽어서 다음 페이지 존재 여부 판단 (count 쿼리 없음)
+     */
+    @Override
+    public MemberSeekPage searchSeek(MemberSearchCondition condition, MemberSeekKey sortKey, MemberSeekCursor after, int size) {
+        List<MemberTeamDto> rows = queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe()),
+                        usernameIndex.usernameMatches(condition),
+                        after(sortKey, after))
+                .orderBy(order(sortKey))
+                .limit(size + 1)
+                .fetch();
 
+        boolean hasNext = rows.size() > size;
+        List<MemberTeamDto> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? MemberSeekCursor.of(sortKey, content.get(size - 1)).encode() : null;
+        return new MemberSeekPage(content, nextCursor, hasNext);
+    }
+
+    private static BooleanExpression after(MemberSeekKey sortKey, MemberSeekCursor after) {
+        if (after == null) {
+            return null;
+        }
+        return switch (sortKey) {
+            case ID -> member.id.gt(after.id());
+            case AGE -> member.age.goe((int) after.key())
+                    .and(member.age.gt((int) after.key()).or(member.id.gt(after.id())));
+        };
+    }
 
+    private static OrderSpecifier<?>[] order(MemberSeekKey sortKey) {
+        return switch (sortKey) {
+            case ID -> new OrderSpecifier<?>[]{member.id.asc()};
+            case AGE -> new OrderSpecifier<?>[]{member.age.asc(), member.id.asc()};
+        };
+    }
 
     private BooleanExpression usernameEq(String username) {
         return hasText(username) ? member.username.eq(username) : null;
     }
 
     private BooleanExpression teamNameEq(String teamName) {
-        return hasText(teamName) ? member.team.name.eq(teamName) : null;
+        return hasText(teamName) ? team.name.eq(teamName) : null;
     }
 
     private BooleanExpression ageGoe(Integer ageGoe) {
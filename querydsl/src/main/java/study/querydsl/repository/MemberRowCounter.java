@@ -0,0 +1,55 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import study.querydsl.event.MemberChange;
+import study.querydsl.event.MemberChangeListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 조건 없는 검색의 전체 건수(= member 테이블 행 수)를 메모리에 유지
+ * - 처음 한 번 count(*)로 읽고, 이후엔 커밋된 insert/delete 이벤트로 증감
+ * - 벌크 쿼리는 이벤트가 없고, 적재 중 커밋된 변경은 한 번 더 셀 수 있으므로 RESYNC_MILLIS마다 다시 읽어 보정
+ * - 사용하는 쪽에서 InMemoryReads.allowed()를 확인할 것 (쓰기 트랜잭션의 미커밋 변경은 반영 안 됨)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberRowCounter implements MemberChangeListener {
+
+    static final long RESYNC_MILLIS = 60_000;
+
+    private final EntityManager em;
+    private final AtomicLong delta = new AtomicLong(); //커밋 이벤트로 누적된 증감
+    private volatile Loaded loaded;
+
+    public long count() {
+        Loaded current = loaded;
+        if (current == null || System.currentTimeMillis() - current.loadedAt() > RESYNC_MILLIS) {
+            current = reload();
+        }
+        return current.count() + (delta.get() - current.deltaAtLoad());
+    }
+
+    @Override
+    public void onMemberChange(MemberChange change) {
+        switch (change.getType()) {
+            case INSERT -> delta.incrementAndGet();
+            case DELETE -> delta.decrementAndGet();
+            case UPDATE -> {
+            }
+        }
+    }
+
+    private Loaded reload() {
+        long deltaAtLoad = delta.get();
+        long count = em.createQuery("select count(*) from Member m", Long.class).getSingleResult();
+        Loaded current = new Loaded(count, deltaAtLoad, System.currentTimeMillis());
+        loaded = current;
+        return current;
+    }
+
+    private record Loaded(long count, long deltaAtLoad, long loadedAt) {
+    }
+}
@@ -0,0 +1,88 @@
+package study.querydsl.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.event.MemberChange;
+import study.querydsl.event.MemberChangeListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * 검색 전체 건수 캐시 (정규화한 MemberSearchCondition -> total)
+ * - 같은 조건으로 다음 페이지를 넘길 때 count 쿼리를 다시 실행하지 않음
+ * - ttl-seconds가 지나거나 회원 추가/삭제/팀 변경(또는 username/age 변경)이 커밋되면 전부 무효화
+ * - max-size를 넘으면 가장 오래 안 쓴 조건부터 제거 (LRU)
+ * - 커밋된 데이터만 담아야 하므로 InMemoryReads.allowed()일 때만 사용
+ */
+@Component
+public class MemberSearchCountCache implements MemberChangeListener {
+
+    private final long ttlMillis;
+    private final Map<MemberSearchCondition, Entry> entries;
+    private long generation; //무효화될 때마다 증가. 계산 도중 무효화된 값은 저장하지 않음
+
+    public MemberSearchCountCache(@Value("${member.search.count-cache.ttl-seconds:30}") long ttlSeconds,
+                                  @Value("${member.search.count-cache.max-size:1000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MemberSearchCondition, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public long get(MemberSearchCondition condition, LongSupplier counter) {
+        MemberSearchCondition key = condition.normalized();
+        long now = System.currentTimeMillis();
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt() > now) {
+                return entry.total();
+            }
+            startGeneration = generation;
+        }
+
+        //count 쿼리는 락 밖에서 실행
+        long total = counter.getAsLong();
+        synchronized (this) {
+            if (generation == startGeneration) {
+                entries.put(key, new Entry(total, now + ttlMillis));
+            }
+        }
+        return total;
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    @Override
+    public void onMemberChange(MemberChange change) {
+        if (change.getType() != MemberChange.Type.UPDATE || change.getBefore() == null || affectsSearch(change)) {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void onTeamChange(Long teamId, String name) {
+        invalidateAll(); //teamName 조건의 결과가 바뀜
+    }
+
+    private static boolean affectsSearch(MemberChange change) {
+        MemberChange.MemberState before = change.getBefore();
+        MemberChange.MemberState after = change.getAfter();
+        return change.teamChanged()
+                || before.getAge() != after.getAge()
+                || !Objects.equals(before.getUsername(), after.getUsername());
+    }
+
+    private record Entry(long total, long expiresAt) {
+    }
+}
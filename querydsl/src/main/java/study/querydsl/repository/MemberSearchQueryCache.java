@@ -0,0 +1,243 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.jpa.HQLTemplates;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 검색 조건의 "모양"별로 미리 만들어 둔 JPQL 템플릿 캐시
+ * - MemberSearchCondition은 username/teamName/ageGoe/ageLoe/usernameStartsWith/usernameContains
+ *   채워짐 여부(+ 후보 id 사용 여부)에 따라 모양이 제한됨
+ * - content 쿼리는 (모양, 정렬) 별로 캐시
+ * - 모양마다 QueryDSL 식 트리 생성 + JPQL 직렬화는 한 번만 하고, 요청마다 파라미터만 바인딩
+ * - JPQL 문자열이 같으므로 Hibernate 쿼리 플랜 캐시도 그대로 재사용됨
+ */
+class MemberSearchQueryCache {
+
+    static final int USERNAME = 1;
+    static final int TEAM_NAME = 1 << 1;
+    static final int AGE_GOE = 1 << 2;
+    static final int AGE_LOE = 1 << 3;
+    static final int USERNAME_PREFIX = 1 << 4;
+    static final int USERNAME_INFIX = 1 << 5;
+    static final int CANDIDATES = 1 << 6; //MemberUsernameIndex / MemberBitmapIndex가 좁힌 후보 id
+    static final int MAX_CANDIDATES = 1000;
+
+    private static final Param<String> USERNAME_PARAM = new Param<>(String.class, "username");
+    private static final Param<String> TEAM_NAME_PARAM = new Param<>(String.class, "teamName");
+    private static final Param<Integer> AGE_GOE_PARAM = new Param<>(Integer.class, "ageGoe");
+    private static final Param<Integer> AGE_LOE_PARAM = new Param<>(Integer.class, "ageLoe");
+    private static final Param<String> USERNAME_PREFIX_PARAM = new Param<>(String.class, "usernamePrefix");
+    private static final Param<String> USERNAME_INFIX_PARAM = new Param<>(String.class, "usernameInfix");
+    @SuppressWarnings("rawtypes")
+    private static final Param<List> CANDIDATES_PARAM = new Param<>(List.class, "candidateIds");
+
+    private final EntityManager em;
+    private final MemberUsernameIndex usernameIndex;
+    private final MemberBitmapIndex bitmapIndex;
+    private final JPQLTemplates templates = HQLTemplates.DEFAULT;
+    private final ConcurrentMap<ContentKey, CompiledQuery> contentQueries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, CompiledQuery> countQueries = new ConcurrentHashMap<>();
+
+    MemberSearchQueryCache(EntityManager em, MemberUsernameIndex usernameIndex, MemberBitmapIndex bitmapIndex) {
+        this.em = em;
+        this.usernameIndex = usernameIndex;
+        this.bitmapIndex = bitmapIndex;
+    }
+
+    /**
+     * @param order 정렬 키 (MemberSearchSort.keysOf). 비어 있으면 order by 없음
+     * @param limit 0 이하이면 전체 조회
+     */
+    List<MemberTeamDto> fetch(MemberSearchCondition condition, List<MemberSearchSort.Key> order, long offset, long limit) {
+        Bound bound = bind(condition);
+        if (bound == null) {
+            return new ArrayList<>();
+        }
+        ContentKey key = new ContentKey(bound.shape(), order);
+        CompiledQuery compiled = contentQueries.computeIfAbsent(key, this::compileContent);
+
+        Query query = compiled.create(em, bound.params());
+        if (offset > 0) {
+            query.setFirstResult((int) offset);
+        }
+        if (limit > 0) {
+            query.setMaxResults((int) limit);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        List<MemberTeamDto> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new MemberTeamDto((Long) row[0], (String) row[1], (Integer) row[2], (Long) row[3], (String) row[4]));
+        }
+        return result;
+    }
+
+    long count(MemberSearchCondition condition) {
+        Bound bound = bind(condition);
+        if (bound == null) {
+            return 0L;
+        }
+        CompiledQuery compiled = countQueries.computeIfAbsent(bound.shape(), this::compileCount);
+        Long count = (Long) compiled.create(em, bound.params()).getSingleResult();
+        return count != null ? count : 0L;
+    }
+
+    static int shapeOf(MemberSearchCondition condition) {
+        int shape = 0;
+        if (hasText(condition.getUsername())) {
+            shape |= USERNAME;
+        }
+        if (hasText(condition.getTeamName())) {
+            shape |= TEAM_NAME;
+        }
+        if (condition.getAgeGoe() != null) {
+            shape |= AGE_GOE;
+        }
+        if (condition.getAgeLoe() != null) {
+            shape |= AGE_LOE;
+        }
+        if (hasText(condition.getUsernameStartsWith())) {
+            shape |= USERNAME_PREFIX;
+        }
+        if (hasText(condition.getUsernameContains())) {
+            shape |= USERNAME_INFIX;
+        }
+        return shape;
+    }
+
+    /**
+     * 조건 값 + 파생 값(LIKE 패턴, 후보 id)을 Param에 매핑
+     * @return 후보가 하나도 없어서 쿼리할 필요가 없으면 null
+     */
+    private Bound bind(MemberSearchCondition condition) {
+        int shape = shapeOf(condition);
+        Map<ParamExpression<?>, Object> params = new HashMap<>();
+        params.put(USERNAME_PARAM, condition.getUsername());
+        params.put(TEAM_NAME_PARAM, condition.getTeamName());
+        params.put(AGE_GOE_PARAM, condition.getAgeGoe());
+        params.put(AGE_LOE_PARAM, condition.getAgeLoe());
+        if ((shape & USERNAME_PREFIX) != 0) {
+            params.put(USERNAME_PREFIX_PARAM, MemberUsernameIndex.likePrefix(condition.getUsernameStartsWith()));
+        }
+        if ((shape & USERNAME_INFIX) != 0) {
+            params.put(USERNAME_INFIX_PARAM, MemberUsernameIndex.likeInfix(condition.getUsernameContains()));
+        }
+        long[] ids = candidates(condition, shape);
+        if (ids != null) {
+            if (ids.length == 0) {
+                return null;
+            }
+            shape |= CANDIDATES;
+            params.put(CANDIDATES_PARAM, Arrays.stream(ids).boxed().toList());
+        }
+        return new Bound(shape, params);
+    }
+
+    /**
+     * 메모리 인덱스로 좁힌 후보 id (username 트라이그램 후보 ∩ 나이/팀 비트맵)
+     * @return 좁힐 수 없거나 후보가 MAX_CANDIDATES보다 많으면 null
+     */
+    private long[] candidates(MemberSearchCondition condition, int shape) {
+        long[] ids = (shape & (USERNAME_PREFIX | USERNAME_INFIX)) != 0 ? usernameIndex.candidates(condition) : null;
+        if ((shape & (TEAM_NAME | AGE_GOE | AGE_LOE)) == 0) {
+            return ids;
+        }
+        Roaring64Bitmap matched = bitmapIndex.match(condition);
+        if (matched == null) {
+            return ids;
+        }
+        if (ids != null) {
+            return Arrays.stream(ids).filter(matched::contains).toArray();
+        }
+        return matched.getLongCardinality() <= MAX_CANDIDATES ? matched.toArray() : null;
+    }
+
+    private CompiledQuery compileContent(ContentKey key) {
+        JPAQuery<?> query = new JPAQuery<Void>(em, templates)
+                .select(member.id, member.username, member.age, team.id, team.name)
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(predicates(key.shape()))
+                .orderBy(MemberSearchSort.orderOf(key.order()));
+        return compile(query);
+    }
+
+    /**
+     * count 쿼리는 건수에 영향을 주는 조인만 남김
+     * - member -> team은 다대일이라 left join은 행 수를 바꾸지 않음 -> teamName 조건이 없으면 조인 생략
+     * - teamName 조건이 있으면 team.name = ? 이 null 팀을 어차피 걸러내므로 inner join (옵티마이저가 순서를 고를 수 있음)
+     * - count(member) 대신 count(*)
+     */
+    private CompiledQuery compileCount(int shape) {
+        JPAQuery<?> query = new JPAQuery<Void>(em, templates)
+                .select(Wildcard.count)
+                .from(member);
+        if ((shape & TEAM_NAME) != 0) {
+            query.join(member.team, team);
+        }
+        query.where(predicates(shape));
+        return compile(query);
+    }
+
+    private CompiledQuery compile(JPAQuery<?> query) {
+        JPQLSerializer serializer = new JPQLSerializer(templates, em);
+        serializer.serialize(query.getMetadata(), false, null);
+        return new CompiledQuery(serializer.toString(), List.copyOf(serializer.getConstants()));
+    }
+
+    //모양에 포함된 조건만 Param 자리표시자로 만듦 (null은 where에서 무시됨)
+    private static Predicate[] predicates(int shape) {
+        return new Predicate[]{
+                (shape & USERNAME) != 0 ? member.username.eq(USERNAME_PARAM) : null,
+                (shape & TEAM_NAME) != 0 ? team.name.eq(TEAM_NAME_PARAM) : null,
+                (shape & AGE_GOE) != 0 ? member.age.goe(AGE_GOE_PARAM) : null,
+                (shape & AGE_LOE) != 0 ? member.age.loe(AGE_LOE_PARAM) : null,
+                (shape & USERNAME_PREFIX) != 0 ? member.username.like(USERNAME_PREFIX_PARAM, MemberUsernameIndex.LIKE_ESCAPE) : null,
+                (shape & USERNAME_INFIX) != 0 ? member.username.like(USERNAME_INFIX_PARAM, MemberUsernameIndex.LIKE_ESCAPE) : null,
+                (shape & CANDIDATES) != 0 ? Expressions.booleanTemplate("{0} in {1}", member.id, CANDIDATES_PARAM) : null
+        };
+    }
+
+    //정렬은 화이트리스트 컬럼 조합뿐이라 (모양, 정렬) 키도 개수가 제한됨
+    private record ContentKey(int shape, List<MemberSearchSort.Key> order) {
+    }
+
+    private record Bound(int shape, Map<ParamExpression<?>, Object> params) {
+    }
+
+    private record CompiledQuery(String jpql, List<Object> constants) {
+
+        Query create(EntityManager em, Map<ParamExpression<?>, Object> params) {
+            Query query = em.createQuery(jpql);
+            JPAUtil.setConstants(query, constants, params);
+            QueryBudget.apply(query);
+            return query;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 스프링 Sort -> QueryDSL OrderSpecifier 변환 (인덱스가 있는 컬럼만 허용)
+ * - username: idx_member_username(username, member_id)
+ * - age: idx_member_age(age, member_id)
+ * - teamName / team.name: idx_team_name(name, team_id) + member.team_id FK 인덱스
+ * - id / memberId: PK
+ * 마지막에 항상 member.id를 붙여서 같은 값끼리의 순서를 고정 (offset 페이징에서 중복/누락 방지)
+ * 화이트리스트 검사는 리포지토리 밖에서 validate로 먼저 (리포지토리 안에서 던지면 스프링 데이터가 예외를 변환함)
+ */
+public final class MemberSearchSort {
+
+    enum Column {
+        ID(member.id), USERNAME(member.username), AGE(member.age), TEAM_NAME(team.name);
+
+        private final ComparableExpressionBase<?> path;
+
+        Column(ComparableExpressionBase<?> path) {
+            this.path = path;
+        }
+    }
+
+    private static final Map<String, Column> WHITELIST = Map.of(
+            "id", Column.ID,
+            "memberId", Column.ID,
+            "username", Column.USERNAME,
+            "age", Column.AGE,
+            "teamName", Column.TEAM_NAME,
+            "team.name", Column.TEAM_NAME);
+
+    //정규화한 정렬 한 항목. 컴파일된 쿼리 캐시 키로도 사용
+    record Key(Column column, Sort.Direction direction, Sort.NullHandling nullHandling) {
+    }
+
+    private MemberSearchSort() {
+    }
+
+    /**
+     * 허용하지 않는 정렬 속성이면 IllegalArgumentException (서비스에서 리포지토리 호출 전에 사용)
+     */
+    public static void validate(Sort sort) {
+        keysOf(sort);
+    }
+
+    /**
+     * @return 정렬 키 목록 (unsorted면 id asc 하나). 허용하지 않는 속성이면 IllegalArgumentException
+     */
+    static List<Key> keysOf(Sort sort) {
+        List<Key> keys = new ArrayList<>();
+        Set<Column> used = EnumSet.noneOf(Column.class);
+        for (Sort.Order order : sort) {
+            Column column = WHITELIST.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("unsupported sort property: " + order.getProperty());
+            }
+            if (used.add(column)) { //같은 컬럼이 두 번 오면 앞의 것만
+                keys.add(new Key(column, order.getDirection(), order.getNullHandling()));
+            }
+        }
+        if (!used.contains(Column.ID)) {
+            keys.add(new Key(Column.ID, Sort.Direction.ASC, Sort.NullHandling.NATIVE));
+        }
+        return List.copyOf(keys);
+    }
+
+    static OrderSpecifier<?>[] orderOf(List<Key> keys) {
+        OrderSpecifier<?>[] specifiers = new OrderSpecifier<?>[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            OrderSpecifier<?> specifier = key.direction().isAscending() ? key.column().path.asc() : key.column().path.desc();
+            specifiers[i] = switch (key.nullHandling()) {
+                case NULLS_FIRST -> specifier.nullsFirst();
+                case NULLS_LAST -> specifier.nullsLast();
+                case NATIVE -> specifier;
+            };
+        }
+        return specifiers;
+    }
+}
@@ -0,0 +1,378 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.event.InMemoryReads;
+import study.querydsl.event.MemberBulkChanges;
+import study.querydsl.event.MemberChange;
+import study.querydsl.event.MemberChangeListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * username 트라이그램(3-gram) 역색인: "~로 시작" / "~를 포함" 검색의 후보 member id를 메모리에서 구함
+ * - username을 "^" + username + "$"로 감싸서 3글자씩 자름 -> 시작 검색은 "^"를 붙인 질의어의 트라이그램으로 찾음
+ * - 트라이그램마다 정렬된 long[] id 목록(posting list)을 두고, 질의어의 트라이그램 목록을 교집합
+ * - 후보는 "포함할 수도 있는" id의 상위 집합. 실제 일치 여부는 DB에서 member.id in (후보) and username like 로 확인
+ *   -> 삭제/이름 변경이 늦게 반영되어 남은 id가 있어도 결과는 틀리지 않음
+ *   -> 빠진 id가 있으면 결과에서 빠지므로, 상위 집합이라고 확신할 수 없을 때는 후보를 내지 않음(null)
+ * - 시작 시 전체를 읽어 만들고 이후 커밋 이벤트로 갱신. 적재 중 들어온 이벤트는 모았다가 적재 후 다시 적용
+ * - 벌크 JPQL/네이티브 변경은 이벤트가 없음 -> MemberBulkChanges가 감지하면 다시 적재가 끝날 때까지 null,
+ *   끝난 뒤 별도 스레드에서 다시 적재. 감지할 수 없는 변경은 rebuild-interval마다 다시 만들어 보정
+ * - 질의어가 짧아 트라이그램이 없거나, 후보가 MAX_CANDIDATES를 넘거나, 아직 준비 전이면 null -> LIKE만으로 검색
+ */
+@Slf4j
+@Component
+public class MemberUsernameIndex implements MemberChangeListener {
+
+    static final int GRAM = 3;
+    static final int MAX_CANDIDATES = 1000;
+    static final long[] NO_MATCH = new long[0];
+    static final char LIKE_ESCAPE = '!';
+
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final MemberBulkChanges bulkChanges;
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-username-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<MemberChange> buffered = new ArrayList<>(); //적재 중 받은 이벤트
+    private Map<String, Postings> postings = new HashMap<>();
+    private boolean loading;
+    private volatile boolean ready;
+    private volatile long builtGeneration; //적재를 시작할 때의 MemberBulkChanges generation
+
+    public MemberUsernameIndex(EntityManager em, PlatformTransactionManager transactionManager,
+                               MemberBulkChanges bulkChanges) {
+        this.em = em;
+        this.bulkChanges = bulkChanges;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${member.username-index.rebuild-interval:PT5M}",
+            fixedDelayString = "${member.username-index.rebuild-interval:PT5M}")
+    public void scheduledRebuild() {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void onBulkChange() {
+        if (ready && rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildScheduled.set(false); //적재 중 다시 온 벌크 변경은 한 번 더 적재
+                rebuild();
+            });
+        }
+    }
+
+    //벌크 변경으로 예약된 재적재가 끝날 때까지 대기 (테스트용)
+    void awaitRebuilt() throws Exception {
+        rebuilder.submit(() -> {
+        }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * DB에서 새로 만들어 통째로 교체 (MemberBitmapIndex.rebuild와 같은 방식)
+     * - 적재하는 동안에도 기존 색인은 이벤트로 계속 갱신되며 조회에 쓰임
+     * - 적재 중 받은 이벤트는 새 색인에 다시 적용 (이후 상태로 옮기기라 스냅샷에 이미 있어도 같은 결과)
+     */
+    synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long generation = bulkChanges.generation(); //읽기 전에 (읽는 도중 벌크 변경이 있으면 적재 결과를 쓰지 않음)
+        lock.writeLock().lock();
+        try {
+            loading = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<String, Postings> loaded = new HashMap<>();
+        readOnlyTx.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = em.createQuery("select m.id, m.username from Member m", Object[].class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                    .getResultStream()) {
+                rows.forEach(row -> add(loaded, (Long) row[0], (String) row[1]));
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            postings = loaded;
+            buffered.forEach(this::apply);
+            buffered.clear();
+            loading = false;
+            builtGeneration = generation;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("username index built. grams={}, elapsed={}ms", gramCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * QueryDSL 동적 쿼리용 조건 (usernameStartsWith / usernameContains)
+     * @return 조건이 없으면 null, 후보가 없으면 항상 거짓인 조건
+     */
+    public BooleanExpression usernameMatches(MemberSearchCondition condition) {
+        String prefix = condition.getUsernameStartsWith();
+        String infix = condition.getUsernameContains();
+        if (!hasText(prefix) && !hasText(infix)) {
+            return null;
+        }
+        BooleanExpression like = null;
+        if (hasText(prefix)) {
+            like = member.username.like(likePrefix(prefix), LIKE_ESCAPE);
+        }
+        if (hasText(infix)) {
+            BooleanExpression contains = member.username.like(likeInfix(infix), LIKE_ESCAPE);
+            like = like != null ? like.and(contains) : contains;
+        }
+
+        long[] ids = candidates(condition);
+        if (ids == null) {
+            return like;
+        }
+        if (ids.length == 0) {
+            return member.id.isNull(); //PK는 null이 아니므로 항상 거짓
+        }
+        return member.id.in(Arrays.stream(ids).boxed().toList()).and(like);
+    }
+
+    /**
+     * @return 후보 id (오름차순). 빈 배열이면 일치하는 회원 없음, null이면 인덱스로 좁힐 수 없음
+     */
+    public long[] candidates(MemberSearchCondition condition) {
+        if (!ready || !bulkChanges.fresh(builtGeneration) || !InMemoryReads.allowed()) {
+            return null; //벌크 변경 뒤 재적재 전이거나, 쓰기 트랜잭션 안의 미커밋 회원은 인덱스에 없음
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        if (hasText(condition.getUsernameStartsWith())) {
+            addGrams(grams, "^" + condition.getUsernameStartsWith());
+        }
+        if (hasText(condition.getUsernameContains())) {
+            addGrams(grams, condition.getUsernameContains());
+        }
+        if (grams.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return NO_MATCH;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size)); //짧은 목록부터 교집합
+            long[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = lists.get(i).intersect(result);
+            }
+            return result.length > MAX_CANDIDATES ? null : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onMemberChange(MemberChange change) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(change);
+            }
+            if (loading) {
+                buffered.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //쓰기 락 안에서 호출
+    private void apply(MemberChange change) {
+        String before = change.getBefore() != null ? change.getBefore().getUsername() : null;
+        String after = change.getAfter() != null ? change.getAfter().getUsername() : null;
+        switch (change.getType()) {
+            case INSERT -> add(change.getMemberId(), after);
+            case DELETE -> remove(change.getMemberId(), before, null);
+            case UPDATE -> {
+                if (before == null || !before.equals(after)) {
+                    remove(change.getMemberId(), before, after);
+                    add(change.getMemberId(), after);
+                }
+            }
+        }
+    }
+
+    int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long id, String username) {
+        add(postings, id, username);
+    }
+
+    private static void add(Map<String, Postings> postings, Long id, String username) {
+        if (username == null) {
+            return;
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        addGrams(grams, "^" + username + "$");
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(id);
+        }
+    }
+
+    //새 이름에도 있는 트라이그램은 남김
+    private void remove(Long id, String username, String keep) {
+        if (username == null) {
+            return;
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        addGrams(grams, "^" + username + "$");
+        if (keep != null) {
+            Set<String> kept = new LinkedHashSet<>();
+            addGrams(kept, "^" + keep + "$");
+            grams.removeAll(kept);
+        }
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static void addGrams(Set<String> grams, String text) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+    }
+
+    static String likePrefix(String prefix) {
+        return escapeLike(prefix) + "%";
+    }
+
+    static String likeInfix(String infix) {
+        return "%" + escapeLike(infix) + "%";
+    }
+
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 4);
+        for (char c : text.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * 정렬된 id 배열 (id는 대부분 증가하는 순서로 들어오므로 보통 끝에 추가)
+     */
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index >= 0) {
+                    return;
+                }
+                insertAt(-index - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        //sorted와의 교집합 (둘 다 오름차순)
+        long[] intersect(long[] sorted) {
+            long[] result = new long[Math.min(size, sorted.length)];
+            int count = 0;
+            for (int i = 0, j = 0; i < size && j < sorted.length; ) {
+                if (ids[i] == sorted[j]) {
+                    result[count++] = ids[i];
+                    i++;
+                    j++;
+                } else if (ids[i] < sorted[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private void insertAt(int index, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+    }
+}
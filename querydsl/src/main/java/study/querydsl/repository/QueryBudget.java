@@ -0,0 +1,110 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.Query;
+import jakarta.persistence.QueryTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.spi.QueryImplementor;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청 하나가 쿼리에 쓸 수 있는 시간 (엔드포인트별, QueryBudgetFilter가 요청 스레드에 묶음)
+ * - 쿼리를 만들 때 남은 시간을 JDBC statement timeout으로 걸고(BudgetedJPAQueryFactory, MemberSearchQueryCache),
+ *   이미 다 썼으면 실행하지 않고 QueryTimeoutException
+ * - cancel(): 이 예산으로 쿼리를 실행한 세션들의 실행 중인 statement를 취소 (클라이언트가 끊은 경우)
+ * - JDBC timeout은 초 단위라 남은 시간을 올림해서 검
+ * - 예산이 없는 쿼리에는 timeout 0을 명시적으로 검
+ *   (H2는 statement timeout을 커넥션 세션 설정으로 저장해서, 그대로 두면 풀에서 재사용될 때 이전 값이 남음)
+ * - 다른 스레드에서 쿼리를 실행하면 bind(current())로 같이 넘겨야 함 (SearchCountExecutor, 스트리밍 응답)
+ */
+@Slf4j
+public final class QueryBudget {
+
+    private static final ThreadLocal<QueryBudget> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final Set<SharedSessionContractImplementor> sessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private QueryBudget(Duration budget) {
+        this.deadlineNanos = System.nanoTime() + budget.toNanos();
+    }
+
+    public static QueryBudget of(Duration budget) {
+        return new QueryBudget(budget);
+    }
+
+    /**
+     * @return 현재 스레드에 묶인 예산. 없으면 null
+     */
+    public static QueryBudget current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 현재 스레드에 budget을 묶음 (null이면 예산 없음). close하면 이전 상태로 되돌림
+     */
+    public static Binding bind(QueryBudget budget) {
+        QueryBudget previous = CURRENT.get();
+        CURRENT.set(budget);
+        return new Binding(previous);
+    }
+
+    public void cancel() {
+        cancelled = true;
+        for (SharedSessionContractImplementor session : sessions) {
+            try {
+                session.getJdbcCoordinator().cancelLastQuery();
+            } catch (RuntimeException e) {
+                //이미 끝났거나 닫힌 세션
+                log.debug("query cancel failed", e);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return 남은 시간 (다 썼으면 0 이하)
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * 현재 스레드의 예산을 query에 적용
+     * @throws QueryTimeoutException 예산을 다 썼거나 취소된 경우
+     */
+    static void apply(Query query) {
+        QueryBudget budget = CURRENT.get();
+        if (budget == null) {
+            query.setHint(HibernateHints.HINT_TIMEOUT, 0);
+            return;
+        }
+        long remainingNanos = budget.deadlineNanos - System.nanoTime();
+        if (budget.cancelled || remainingNanos <= 0) {
+            throw new QueryTimeoutException(budget.cancelled ? "query cancelled" : "query time budget exceeded");
+        }
+        int seconds = (int) Math.max(1, (remainingNanos + 999_999_999L) / 1_000_000_000L);
+        query.setHint(HibernateHints.HINT_TIMEOUT, seconds);
+        budget.sessions.add(query.unwrap(QueryImplementor.class).getSession());
+    }
+
+    public record Binding(QueryBudget previous) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
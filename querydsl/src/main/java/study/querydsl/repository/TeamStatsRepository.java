@@ -0,0 +1,43 @@
+package study.querydsl.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import study.querydsl.entity.TeamStats;
+
+import java.util.List;
+
+public interface TeamStatsRepository extends JpaRepository<TeamStats, Long> {
+
+    List<TeamStats> findAllByOrderByTeamNameAscTeamIdAsc();
+
+    //회원 추가분만 반영 (count/sum 증가, max/min은 넓히기만)
+    @Modifying
+    @Query("update TeamStats s set s.memberCount = s.memberCount + :count, s.ageSum = s.ageSum + :ageSum," +
+            " s.ageMax = case when s.ageMax is null or s.ageMax < :ageMax then :ageMax else s.ageMax end," +
+            " s.ageMin = case when s.ageMin is null or s.ageMin > :ageMin then :ageMin else s.ageMin end" +
+            " where s.teamId = :teamId")
+    int addMembers(@Param("teamId") Long teamId, @Param("count") long count, @Param("ageSum") long ageSum,
+                   @Param("ageMax") int ageMax, @Param("ageMin") int ageMin);
+
+    @Modifying
+    @Query("update TeamStats s set s.teamName = :teamName where s.teamId = :teamId")
+    int rename(@Param("teamId") Long teamId, @Param("teamName") String teamName);
+
+    //한 팀을 회원 테이블에서 다시 계산: teamName, count, sum, max, min
+    @Query("select t.name, count(m), coalesce(sum(m.age), 0L), max(m.age), min(m.age)" +
+            " from Team t left join t.members m where t.id = :teamId group by t.id, t.name")
+    List<Object[]> aggregate(@Param("teamId") Long teamId);
+
+    @Modifying
+    @Query("delete from TeamStats")
+    int deleteAllStats();
+
+    //전체 재계산 (insert-select 한 번)
+    @Modifying
+    @Query("insert into TeamStats (teamId, teamName, memberCount, ageSum, ageMax, ageMin)" +
+            " select t.id, t.name, count(m), coalesce(sum(m.age), 0L), max(m.age), min(m.age)" +
+            " from Team t left join t.members m group by t.id, t.name")
+    int rebuildAll();
+}
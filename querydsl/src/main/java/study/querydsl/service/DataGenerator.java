@@ -0,0 +1,182 @@
+package study.querydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.event.MemberBulkChanges;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 용량 테스트용 합성 회원/팀 데이터 생성 (InitMember, 테스트)
+ * - 팀 크기는 Zipf 분포, 나이는 정규분포, 일부 회원은 이름 중복 / 팀 없음
+ * - 회원은 chunkSize씩 나눠 여러 스레드에서 JDBC batch insert (청크마다 트랜잭션)
+ * - 같은 seed면 같은 데이터: 청크마다 (seed, 청크 번호)로 난수를 만들고 id도 청크 번호로 정해지므로 스레드 실행 순서와 무관
+ * - id는 Hibernate 시퀀스(member_seq, team_seq)에서 구간을 통째로 예약하고 시퀀스를 그 뒤로 옮김
+ *   -> 이후 JPA persist와 id가 겹치지 않음
+ * - 시작할 때 전용: JPA를 거치지 않으므로 커밋 이벤트(MemberChangeListener)가 발생하지 않음
+ *   -> 메모리 구조가 DB에서 적재되기 전(ApplicationReadyEvent 전, InitMember의 @PostConstruct)에 실행해야 함
+ *   -> insert는 엔티티 모양이라 MemberBulkChanges가 감지하지 못하므로 생성 전후에 직접 알림
+ *      (비트맵/username 인덱스, 읽기 모델은 생성 중에는 쓰이지 않고 끝난 뒤 다시 적재)
+ *   -> 시작 후에 실행하면 MemberRowCounter(다음 재조회까지), 팀 통계(다음 재적재까지)는 새 행을 모름.
+ *      그래서 시작 후 호출은 경고 로그를 남김
+ *      (DataGeneratorTest처럼 만든 행을 JDBC로 바로 지우는 경우만 시작 후 호출)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataGenerator {
+
+    private static final int ID_ALLOCATION_SIZE = 50; //@GeneratedValue 기본 시퀀스 증가값
+    private static final String INSERT_TEAM = "insert into team (team_id, name) values (?, ?)";
+    private static final String INSERT_MEMBER = "insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MemberBulkChanges bulkChanges;
+    private volatile boolean started;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        started = true;
+    }
+
+    public Result generate(DataGeneratorProperties spec) {
+        if (started) {
+            log.warn("generating data after startup: member row count and team stats will lag until their next resync");
+        }
+        long start = System.nanoTime();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long firstTeamId = reserveIds("team_seq", spec.getTeams());
+        long firstMemberId = reserveIds("member_seq", spec.getMembers());
+        bulkChanges.invalidate(); //청크마다 커밋되므로 시작부터 메모리 구조를 쓰지 않게 함
+        try {
+            insertAll(spec, tx, firstTeamId, firstMemberId);
+        } finally {
+            bulkChanges.changed(); //실패해도 일부 청크는 커밋됐을 수 있음
+        }
+
+        Result result = new Result(firstTeamId, spec.getTeams(), firstMemberId, spec.getMembers());
+        log.info("generated {} teams, {} members in {}ms", result.teams(), result.members(),
+                (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private void insertAll(DataGeneratorProperties spec, TransactionTemplate tx, long firstTeamId, long firstMemberId) {
+        tx.executeWithoutResult(status -> insertTeams(spec, firstTeamId));
+
+        double[] teamCdf = zipfCdf(spec.getTeams(), spec.getTeamSkew());
+        long chunks = (spec.getMembers() + spec.getChunkSize() - 1) / spec.getChunkSize();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, spec.getParallelism()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = chunk * spec.getChunkSize();
+                long to = Math.min(spec.getMembers(), from + spec.getChunkSize());
+                SplittableRandom random = new SplittableRandom(spec.getSeed() ^ (chunk * 0x9E3779B97F4A7C15L));
+                futures.add(executor.submit(() -> tx.executeWithoutResult(
+                        status -> insertMembers(spec, random, teamCdf, firstTeamId, firstMemberId + from, to - from))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("data generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("data generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return 예약한 구간의 첫 id (first ~ first + count - 1)
+     */
+    private long reserveIds(String sequence, long count) {
+        //Hibernate pooled 옵티마이저는 시퀀스 값 v를 받으면 (v - 50, v] 구간을 쓰므로, 지금까지 나간 id는 모두 next - 50 이하
+        Long next = jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (next + count + ID_ALLOCATION_SIZE));
+        return next;
+    }
+
+    private void insertTeams(DataGeneratorProperties spec, long firstTeamId) {
+        List<Object[]> rows = new ArrayList<>(spec.getTeams());
+        for (int rank = 0; rank < spec.getTeams(); rank++) {
+            rows.add(new Object[]{firstTeamId + rank, "team" + rank});
+        }
+        jdbcTemplate.batchUpdate(INSERT_TEAM, rows);
+    }
+
+    private void insertMembers(DataGeneratorProperties spec, SplittableRandom random, double[] teamCdf,
+                               long firstTeamId, long firstId, long count) {
+        int[] types = {Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.BIGINT};
+        List<Object[]> batch = new ArrayList<>(spec.getBatchSize());
+        for (long i = 0; i < count; i++) {
+            long id = firstId + i;
+            batch.add(new Object[]{id, username(spec, random, id), age(spec, random), teamId(spec, random, teamCdf, firstTeamId)});
+            if (batch.size() == spec.getBatchSize()) {
+                jdbcTemplate.batchUpdate(INSERT_MEMBER, batch, types);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MEMBER, batch, types);
+        }
+    }
+
+    private static String username(DataGeneratorProperties spec, SplittableRandom random, long id) {
+        if (spec.getUsernameCollisionRate() > 0 && random.nextDouble() < spec.getUsernameCollisionRate()) {
+            return "user" + random.nextInt(Math.max(1, spec.getCommonUsernames()));
+        }
+        return "member" + id;
+    }
+
+    private static int age(DataGeneratorProperties spec, SplittableRandom random) {
+        long age = Math.round(spec.getAgeMean() + spec.getAgeStddev() * random.nextGaussian());
+        return (int) Math.max(spec.getAgeMin(), Math.min(spec.getAgeMax(), age));
+    }
+
+    private static Long teamId(DataGeneratorProperties spec, SplittableRandom random, double[] teamCdf, long firstTeamId) {
+        if (teamCdf.length == 0 || (spec.getNoTeamRate() > 0 && random.nextDouble() < spec.getNoTeamRate())) {
+            return null;
+        }
+        int rank = Arrays.binarySearch(teamCdf, random.nextDouble());
+        rank = rank >= 0 ? rank : -rank - 1;
+        return firstTeamId + Math.min(rank, teamCdf.length - 1);
+    }
+
+    //순위 k(1부터)의 가중치 1 / k^skew 누적 분포
+    static double[] zipfCdf(int teams, double skew) {
+        double[] cdf = new double[teams];
+        double sum = 0;
+        for (int k = 0; k < teams; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < teams; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    /**
+     * 생성한 id 구간: 팀 firstTeamId ~ +teams-1, 회원 firstMemberId ~ +members-1
+     */
+    public record Result(long firstTeamId, int teams, long firstMemberId, long members) {
+    }
+}
@@ -0,0 +1,35 @@
+package study.querydsl.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 합성 데이터 생성 설정 (data.generator.*)
+ * - 테스트에서는 new 해서 값만 바꿔 DataGenerator.generate에 넘기면 됨
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "data.generator")
+public class DataGeneratorProperties {
+
+    private long members = 100;
+    private int teams = 2;
+    private double teamSkew = 0;  //팀 크기 Zipf 지수 (0 = 균등, 1 이상이면 상위 팀에 몰림)
+    private double noTeamRate = 0;  //팀 없는 회원 비율
+
+    private double ageMean = 35;  //나이 정규분포
+    private double ageStddev = 12;
+    private int ageMin = 0;
+    private int ageMax = 100;
+
+    private double usernameCollisionRate = 0;  //이 비율만큼은 공용 이름 풀(user0 ~ user{commonUsernames-1})에서 뽑아 중복
+    private int commonUsernames = 1000;
+
+    private long seed = 42;
+    private int chunkSize = 50_000;  //청크 하나 = 트랜잭션 하나
+    private int batchSize = 1_000;  //JDBC batch 크기
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+}
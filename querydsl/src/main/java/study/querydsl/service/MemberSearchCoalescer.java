@@ -0,0 +1,68 @@
+package study.querydsl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.event.InMemoryReads;
+import study.querydsl.repository.QueryBudget;
+
+import java.util.function.Supplier;
+
+/**
+ * 동시에 들어온 같은 검색(/v1 ~ /v3: 같은 조건 + 같은 Pageable)을 한 번만 실행하고 결과를 나눠 줌
+ * - 키: 연산 이름 + 정규화한 조건(빈 문자열 = null) + Pageable(page, size, sort)
+ * - 실제 실행(leader)만 readOnly 트랜잭션 = 커넥션을 잡음. 기다리는 호출은 커넥션 없이 대기
+ * - leader는 자기 요청의 QueryBudget으로 실행되므로 시간 초과/취소(QueryTimeoutException)는 나눠 받지 않고
+ *   기다리던 호출이 자기 예산으로 직접 실행
+ * - 기다리는 호출은 자기 QueryBudget의 남은 시간까지만 기다리고, 넘기면 QueryTimeoutException (-> 504)
+ * - 꺼져 있어도(enabled=false) 같은 readOnly 트랜잭션으로 실행 (서비스 메서드는 SUPPORTS라 트랜잭션이 없음)
+ * - 바깥 쓰기 트랜잭션 안에서는 합치지 않음 (그 트랜잭션의 미커밋 변경이 다른 호출에 새어 나가면 안 됨)
+ * - 결과(List, Page)는 여러 요청이 공유하므로 읽기 전용으로 다룰 것
+ * - 메트릭: member.search.coalesce.calls{result=executed|shared|retried|timed_out}
+ */
+@Component
+public class MemberSearchCoalescer {
+
+    private final SingleFlight<Key, Object> flights;
+    private final TransactionTemplate readOnlyTx;
+    private final boolean enabled;
+
+    public MemberSearchCoalescer(PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${member.search.coalesce.enabled:true}") boolean enabled) {
+        this.flights = new SingleFlight<>("member.search.coalesce", meterRegistry,
+                e -> e instanceof QueryTimeoutException || e instanceof jakarta.persistence.QueryTimeoutException);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    /**
+     * @param pageable 페이징이 없는 검색이면 null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, MemberSearchCondition condition, Pageable pageable, Supplier<T> search) {
+        if (!InMemoryReads.allowed()) {
+            return search.get(); //바깥 쓰기 트랜잭션에 참여
+        }
+        if (!enabled) {
+            return readOnlyTx.execute(status -> search.get());
+        }
+        Key key = new Key(operation, condition.normalized(), pageable);
+        QueryBudget budget = QueryBudget.current();
+        try {
+            return (T) flights.execute(key, budget != null ? budget.remaining() : null,
+                    () -> readOnlyTx.execute(status -> search.get()));
+        } catch (SingleFlight.WaitTimeoutException e) {
+            throw new jakarta.persistence.QueryTimeoutException("query time budget exceeded");
+        }
+    }
+
+    private record Key(String operation, MemberSearchCondition condition, Pageable pageable) {
+    }
+}
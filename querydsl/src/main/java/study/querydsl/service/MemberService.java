@@ -0,0 +1,142 @@
+package study.querydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSeekCursor;
+import study.querydsl.dto.MemberSeekKey;
+import study.querydsl.dto.MemberSeekPage;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberReadModel;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberSearchSort;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 회원 검색 서비스
+ * - 클래스 레벨 readOnly 트랜잭션: 스프링이 Hibernate 세션을 FlushMode.MANUAL + defaultReadOnly로 바꿈
+ *   -> 쿼리 전 자동 flush, 스냅샷 보관, 커밋 시 dirty checking을 모두 생략
+ * - 검색 쿼리들이 하나의 커넥션/트랜잭션 안에서 실행됨 (content + count)
+ *   단, searchPageComplex는 여유가 있으면 count를 별도 커넥션에서 병렬 실행
+ * - search / searchPageSimple / searchPageComplex는 동시에 들어온 같은 검색을 한 번만 실행 (MemberSearchCoalescer)
+ *   -> 트랜잭션은 SUPPORTS로 두고, 실제로 실행하는 쪽만 트랜잭션을 시작
+ * - 정렬 검증은 리포지토리 호출 전에 (리포지토리에서 던진 IllegalArgumentException은 변환되어 400이 아니게 됨)
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberService {
+
+    static final int MAX_SEEK_SIZE = 1000;
+    static final int MAX_BATCH_SIZE = 100;
+    static final int MAX_BATCH_ROWS = 10_000; //배치 한 번에 읽는 행 수 (모든 조건의 합집합)
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberRepository memberRepository;
+    private final SearchCountExecutor searchCountExecutor;
+    private final MemberSearchCoalescer coalescer;
+    private final ObjectProvider<MemberReadModel> readModel; //member.read-model.enabled=true 일 때만 빈이 있음
+
+    /**
+     * 읽기 모델이 켜져 있고 준비됐으면 메모리에서 조건 평가, 아니면 DB 조회
+     * - SUPPORTS: 메모리에서 응답하면 트랜잭션/커넥션을 잡지 않음 (DB로 갈 때는 MemberSearchCoalescer가 readOnly 트랜잭션 시작)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        MemberReadModel model = readModel.getIfAvailable();
+        if (model != null) {
+            List<MemberTeamDto> result = model.search(condition);
+            if (result != null) {
+                return result;
+            }
+        }
+        return coalescer.execute("search", condition, null, () -> memberJpaRepository.search(condition));
+    }
+
+    /**
+     * 조회한 행을 하나씩 consumer에 넘김 (트랜잭션/커서는 모두 넘길 때까지 유지)
+     * - consumer가 예외를 던지면(클라이언트 연결 끊김 등) 스트림을 닫고 중단
+     * @return 넘긴 행 수
+     */
+    public long searchStream(MemberSearchCondition condition, Consumer<MemberTeamDto> consumer) {
+        long count = 0;
+        try (Stream<MemberTeamDto> rows = memberJpaRepository.searchStream(condition)) {
+            Iterator<MemberTeamDto> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchSort.validate(pageable.getSort());
+        return coalescer.execute("searchPageSimple", condition, pageable,
+                () -> memberRepository.searchPageSimple(condition, pageable));
+    }
+
+    /**
+     * count를 다른 커넥션에서 먼저 시작하고 content를 조회한 뒤 합침 (SearchCountExecutor)
+     * - 풀이 바쁘면 기존처럼 content -> (필요하면) count 순차 실행
+     * - 병렬로 시작한 count는 마지막 페이지라 필요 없어도 끝까지 실행됨
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchSort.validate(pageable.getSort());
+        return coalescer.execute("searchPageComplex", condition, pageable,
+                () -> searchPageParallel(condition, pageable));
+    }
+
+    private Page<MemberTeamDto> searchPageParallel(MemberSearchCondition condition, Pageable pageable) {
+        CompletableFuture<Long> total = searchCountExecutor.submit(() -> memberRepository.searchCount(condition));
+        if (total == null) {
+            return memberRepository.searchPageComplex(condition, pageable);
+        }
+        List<MemberTeamDto> content = memberRepository.searchContent(condition, pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> SearchCountExecutor.join(total));
+    }
+
+    /**
+     * 조건 없는 검색은 전체 조회가 되므로 400, 합집합이 MAX_BATCH_ROWS를 넘어도 400 (조건을 좁히거나 나눠서 요청)
+     */
+    public List<List<MemberTeamDto>> searchBatch(List<MemberSearchCondition> conditions) {
+        if (conditions.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("too many conditions: " + conditions.size() + " > " + MAX_BATCH_SIZE);
+        }
+        for (int i = 0; i < conditions.size(); i++) {
+            if (!conditions.get(i).hasFilter()) {
+                throw new IllegalArgumentException("condition " + i + " has no filter");
+            }
+        }
+        if (conditions.isEmpty()) {
+            return List.of();
+        }
+        List<List<MemberTeamDto>> result = memberRepository.searchBatch(conditions, MAX_BATCH_ROWS);
+        if (result == null) {
+            throw new IllegalArgumentException("conditions match more than " + MAX_BATCH_ROWS + " members");
+        }
+        return result;
+    }
+
+    /**
+     * 커서는 리포지토리에 넘기기 전에 해석 (잘못된 커서는 IllegalArgumentException -> 400)
+     */
+    public MemberSeekPage searchSeek(MemberSearchCondition condition, MemberSeekKey sortKey, String cursor, int size) {
+        MemberSeekCursor after = MemberSeekCursor.decode(cursor, sortKey);
+        return memberRepository.searchSeek(condition, sortKey, after, Math.min(Math.max(size, 1), MAX_SEEK_SIZE));
+    }
+}
@@ -0,0 +1,110 @@
+package study.querydsl.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.event.InMemoryReads;
+import study.querydsl.repository.QueryBudget;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.LongSupplier;
+
+/**
+ * 검색 count 쿼리를 content 쿼리와 동시에 실행 (searchPageComplex)
+ * - 가상 스레드에서 별도의 readOnly 트랜잭션 = 별도 커넥션으로 실행
+ * - 동시 실행 수는 max-concurrency로 제한
+ * - 커넥션 풀에 놀고 있는 커넥션이 없거나 대기 중인 스레드가 있으면 submit이 null -> 호출한 쪽이 순차 실행
+ *   (요청 하나가 커넥션 두 개를 잡으므로, 풀이 바쁠 때 병렬로 돌리면 오히려 다른 요청을 굶김)
+ */
+@Slf4j
+@Component
+public class SearchCountExecutor {
+
+    private final TransactionTemplate readOnlyTx;
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("search-count-", 0).factory());
+
+    public SearchCountExecutor(PlatformTransactionManager transactionManager,
+                               DataSource dataSource,
+                               @Value("${member.search.parallel-count.enabled:true}") boolean enabled,
+                               @Value("${member.search.parallel-count.max-concurrency:4}") int maxConcurrency) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.readOnlyTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * @return 병렬로 시작한 count. 비활성화했거나 여유가 없으면 null
+     */
+    public CompletableFuture<Long> submit(LongSupplier count) {
+        //바깥 쓰기 트랜잭션에 참여 중이면 다른 커넥션에서는 그 미커밋 변경이 안 보임
+        if (!enabled || !InMemoryReads.allowed() || !poolHasIdleConnection() || !permits.tryAcquire()) {
+            return null;
+        }
+        QueryBudget budget = QueryBudget.current(); //요청의 쿼리 시간 예산/취소를 count에도 적용
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try (QueryBudget.Binding ignored = QueryBudget.bind(budget)) {
+                    return readOnlyTx.execute(status -> count.getAsLong());
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            return null;
+        }
+    }
+
+    public static long join(CompletableFuture<Long> total) {
+        try {
+            return total.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean poolHasIdleConnection() {
+        HikariPoolMXBean pool = hikariPool();
+        return pool == null || (pool.getIdleConnections() > 0 && pool.getThreadsAwaitingConnection() == 0);
+    }
+
+    //p6spy가 DataSource를 감싸고 있으므로 unwrap
+    private HikariPoolMXBean hikariPool() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            log.debug("cannot unwrap hikari pool", e);
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,121 @@
+package study.querydsl.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 호출을 하나로 합침
+ * - 먼저 온 호출(leader)만 실제로 실행하고, 실행 중에 같은 키로 온 호출은 그 결과(또는 예외)를 같이 받음
+ * - 결과 객체를 여러 호출이 공유하므로 받은 쪽에서 수정하면 안 됨
+ * - 끝난 결과는 보관하지 않음 (캐시가 아님)
+ * - leader에게만 해당하는 실패(그 요청의 시간 예산 초과, 취소 등)는 나눠 받지 않고, 기다리던 호출이 각자 직접 실행
+ * - 기다리는 호출은 자기 maxWait까지만 기다림 (leader가 더 긴 예산으로 오래 걸려도 자기 예산을 넘기지 않음)
+ * - 메트릭: {name}.calls{result=executed|shared|retried|timed_out}, {name}.in_flight
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter shared;
+    private final Counter retried;
+    private final Counter timedOut;
+    private final Predicate<Throwable> leaderOnlyFailure;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this(name, meterRegistry, e -> false);
+    }
+
+    /**
+     * @param leaderOnlyFailure leader가 이 예외로 끝나면 기다리던 호출은 예외를 받지 않고 직접 다시 실행
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry, Predicate<Throwable> leaderOnlyFailure) {
+        this.leaderOnlyFailure = leaderOnlyFailure;
+        this.executed = Counter.builder(name + ".calls").tag("result", "executed")
+                .description("calls that ran the underlying query").register(meterRegistry);
+        this.shared = Counter.builder(name + ".calls").tag("result", "shared")
+                .description("calls deduplicated onto an in-flight execution").register(meterRegistry);
+        this.retried = Counter.builder(name + ".calls").tag("result", "retried")
+                .description("shared calls that ran on their own after the leader failed").register(meterRegistry);
+        this.timedOut = Counter.builder(name + ".calls").tag("result", "timed_out")
+                .description("shared calls that gave up waiting for the leader").register(meterRegistry);
+        meterRegistry.gauge(name + ".in_flight", inFlight, ConcurrentMap::size);
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        return execute(key, null, call);
+    }
+
+    /**
+     * @param maxWait 실행 중인 같은 호출의 결과를 기다릴 최대 시간. null이면 끝날 때까지
+     * @throws WaitTimeoutException maxWait 안에 leader가 끝나지 않음
+     */
+    public V execute(K key, Duration maxWait, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            shared.increment();
+            try {
+                return await(running, maxWait);
+            } catch (CompletionException e) {
+                if (leaderOnlyFailure.test(e.getCause())) {
+                    retried.increment();
+                    return call.get();
+                }
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        executed.increment();
+        try {
+            V result = call.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V await(CompletableFuture<V> running, Duration maxWait) {
+        if (maxWait == null) {
+            return running.join();
+        }
+        try {
+            return running.get(Math.max(0, maxWait.toNanos()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw new WaitTimeoutException(maxWait);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 기다리는 호출이 maxWait 안에 결과를 받지 못함 (leader는 계속 실행 중)
+     */
+    public static class WaitTimeoutException extends RuntimeException {
+
+        public WaitTimeoutException(Duration maxWait) {
+            super("gave up waiting for in-flight call after " + maxWait.toMillis() + "ms");
+        }
+    }
+}
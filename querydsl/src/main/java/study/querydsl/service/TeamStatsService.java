@@ -0,0 +1,214 @@
+package study.querydsl.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.entity.TeamStats;
+import study.querydsl.event.MemberChange;
+import study.querydsl.event.MemberChangeListener;
+import study.querydsl.repository.TeamStatsRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 팀 통계(team_stats) 요약 테이블 관리 + 조회
+ * - 조회는 요약 테이블만 읽음: O(팀 수)
+ * - 회원 추가/삭제/나이 변경/팀 변경이 커밋되면 팀별 증감(delta)을 모아 두고 단일 applier 스레드가 반영
+ *   - 추가만 있으면 count/sum 증가 + max/min 넓히기 (update 한 번)
+ *   - 빠진 회원이 있으면 max/min을 알 수 없으므로 그 팀만 회원 테이블에서 다시 계산
+ * - 다시 계산할 때는 읽기 전에 그 팀에 쌓인 delta를 떼어 내서 버림
+ *   이벤트는 커밋 뒤에 오므로 읽기 전에 와 있던 delta는 모두 읽기 결과에 포함됨 (버려도 유실 없음)
+ *   읽기 뒤에 온 delta는 남겨서 다음 flush에 반영. 읽기 전에 커밋됐지만 이벤트가 늦게 온 변경은
+ *   두 번 반영될 수 있으므로 reconcile-interval마다 전체 재계산으로 보정
+ * - reconcile: 전체를 insert-select 한 번으로 다시 만듦 (시작 시 + reconcile-interval 마다)
+ *   벌크 쿼리처럼 이벤트가 없는 변경이나 이벤트 유실로 생긴 차이를 바로잡음
+ */
+@Slf4j
+@Service
+public class TeamStatsService implements MemberChangeListener {
+
+    private final TeamStatsRepository teamStatsRepository;
+    private final EntityManager em;
+    private final TransactionTemplate tx;
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "team-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+    private final Map<Long, String> pendingNames = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public TeamStatsService(TeamStatsRepository teamStatsRepository, EntityManager em,
+                            PlatformTransactionManager transactionManager) {
+        this.teamStatsRepository = teamStatsRepository;
+        this.em = em;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public List<TeamStatsDto> findAll() {
+        return teamStatsRepository.findAllByOrderByTeamNameAscTeamIdAsc().stream()
+                .map(TeamStatsDto::new)
+                .toList();
+    }
+
+    @Override
+    public void onMemberChange(MemberChange change) {
+        MemberChange.MemberState before = change.getBefore();
+        MemberChange.MemberState after = change.getAfter();
+        if (before == null && change.getType() != MemberChange.Type.INSERT) {
+            //어느 팀에서 빠졌는지 모름 -> 전체 재계산
+            applier.execute(this::reconcile);
+            return;
+        }
+        if (before != null && after != null && !change.teamChanged() && before.getAge() == after.getAge()) {
+            return; //이름만 바뀜
+        }
+        if (before != null && before.getTeamId() != null) {
+            pending.compute(before.getTeamId(), (teamId, delta) -> (delta != null ? delta : new Delta()).remove(before.getAge()));
+        }
+        if (after != null && after.getTeamId() != null) {
+            pending.compute(after.getTeamId(), (teamId, delta) -> (delta != null ? delta : new Delta()).add(after.getAge()));
+        }
+        scheduleFlush();
+    }
+
+    @Override
+    public void onTeamChange(Long teamId, String name) {
+        pendingNames.put(teamId, name);
+        scheduleFlush();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        applier.execute(this::reconcile);
+    }
+
+    @Scheduled(fixedDelayString = "${team.stats.reconcile-interval:PT10M}",
+            initialDelayString = "${team.stats.reconcile-interval:PT10M}")
+    public void scheduledReconcile() {
+        applier.execute(this::reconcile);
+    }
+
+    //applier에 쌓인 작업이 모두 끝날 때까지 대기 (테스트용)
+    void awaitApplied() throws Exception {
+        applier.submit(() -> {
+        }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        applier.shutdownNow();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            applier.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        try {
+            tx.executeWithoutResult(status -> {
+                for (Long teamId : pending.keySet()) {
+                    Delta delta = pending.remove(teamId);
+                    if (delta != null) {
+                        apply(teamId, delta);
+                    }
+                }
+                for (Long teamId : pendingNames.keySet()) {
+                    String name = pendingNames.remove(teamId);
+                    if (teamStatsRepository.rename(teamId, name) == 0) {
+                        recompute(teamId);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("team stats flush failed, reconciling", e);
+            reconcile();
+        }
+    }
+
+    private void apply(Long teamId, Delta delta) {
+        if (delta.removed) {
+            recompute(teamId);
+        } else if (delta.count > 0
+                && teamStatsRepository.addMembers(teamId, delta.count, delta.ageSum, delta.ageMax, delta.ageMin) == 0) {
+            recompute(teamId); //아직 요약 행이 없는 팀
+        }
+    }
+
+    private void recompute(Long teamId) {
+        pending.remove(teamId); //읽기 전에 떼어 냄: 이미 커밋된 변경이라 아래 집계에 포함됨
+        List<Object[]> rows = teamStatsRepository.aggregate(teamId);
+        TeamStats stats = teamStatsRepository.findById(teamId).orElse(null);
+        if (rows.isEmpty()) {
+            if (stats != null) {
+                teamStatsRepository.delete(stats); //팀이 없어짐
+            }
+            return;
+        }
+        Object[] row = rows.get(0);
+        if (stats == null) {
+            stats = new TeamStats(teamId);
+            em.persist(stats);
+        }
+        stats.refresh((String) row[0], (Long) row[1], (Long) row[2], (Integer) row[3], (Integer) row[4]);
+    }
+
+    /**
+     * 요약 테이블 전체 재계산
+     * - 읽기(insert-select) 전에 쌓여 있던 delta만 버림 (팀마다 원자적으로 떼어 냄)
+     *   읽기 도중/뒤에 온 delta는 남겨서 재계산 뒤 flush에 반영 (커밋이 읽기 뒤라면 결과에 없으므로)
+     * - 이름 변경은 같은 값을 다시 써도 되므로 남겨 둠
+     */
+    void reconcile() {
+        long start = System.currentTimeMillis();
+        pending.keySet().forEach(pending::remove);
+        int teams = tx.execute(status -> {
+            teamStatsRepository.deleteAllStats();
+            return teamStatsRepository.rebuildAll();
+        });
+        if (!pending.isEmpty()) {
+            scheduleFlush();
+        }
+        log.info("team stats reconciled. teams={}, elapsed={}ms", teams, System.currentTimeMillis() - start);
+    }
+
+    //팀 하나에 쌓인 증감
+    private static final class Delta {
+        long count;
+        long ageSum;
+        int ageMax = Integer.MIN_VALUE;
+        int ageMin = Integer.MAX_VALUE;
+        boolean removed;
+
+        Delta add(int age) {
+            count++;
+            ageSum += age;
+            ageMax = Math.max(ageMax, age);
+            ageMin = Math.min(ageMin, age);
+            return this;
+        }
+
+        Delta remove(int age) {
+            count--;
+            ageSum -= age;
+            removed = true;
+            return this;
+        }
+    }
+}
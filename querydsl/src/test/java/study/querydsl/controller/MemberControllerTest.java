@@ -0,0 +1,103 @@
+package study.querydsl.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManager;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 스트리밍 응답은 별도 스레드에서 자체 트랜잭션으로 읽으므로 테스트 데이터는 커밋하고 끝나면 지움
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    public void before() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team team = new Team("streamTeam");
+            em.persist(team);
+            for (int i = 0; i < 250; i++) {
+                em.persist(new Member("stream" + i, i, team));
+            }
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.team.id in (select t.id from Team t where t.name = 'streamTeam')").executeUpdate();
+            em.createQuery("delete from Team t where t.name = 'streamTeam'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void streamMembersAsNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/members/stream")
+                        .param("teamName", "streamTeam")
+                        .param("ageGoe", "50"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(200);
+        assertThat(lines[0]).contains("\"username\":\"stream50\"", "\"teamName\":\"streamTeam\"");
+    }
+
+    @Test
+    public void batchWithoutFilterIsBadRequest() throws Exception {
+        mockMvc.perform(post("/v1/members/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"teamName\":\"streamTeam\"}, {\"username\":\" \"}]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/v1/members/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"teamName\":\"streamTeam\", \"ageGoe\":200}]"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void invalidSeekCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/v4/members").param("sort", "id").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void unsupportedSortIsBadRequest() throws Exception {
+        mockMvc.perform(get("/v2/members").param("sort", "team.id"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v3/members").param("sort", "team.id"))
+                .andExpect(status().isBadRequest());
+    }
+}
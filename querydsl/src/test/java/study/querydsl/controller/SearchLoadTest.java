@@ -0,0 +1,234 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * /v1 ~ /v3 검색 부하 테스트 (./gradlew loadtest)
+ * - perf 프로필 + 메모리 H2: 시작할 때 DataGenerator가 seed로 같은 데이터를 만듦 (InitMember)
+ * - open-loop: 응답을 기다리지 않고 정해진 도착률(포아송)로 요청을 보냄
+ *   지연 시간은 "보내려던 시각"부터 재므로 서버가 밀려도 대기 시간이 빠지지 않음 (coordinated omission 보정)
+ * - 시나리오별 HdrHistogram (p50/p90/p99/p999) + 처리량 + 상태 코드별 건수
+ * - 결과는 build/reports/loadtest/search-load.json (키 순서 고정, 커밋 간 diff 용)
+ * - 설정: -Dloadtest.rate=200 -Dloadtest.warmup-seconds=10 -Dloadtest.duration-seconds=30
+ *        -Dloadtest.members=200000 -Dloadtest.teams=1000 -Dloadtest.seed=42
+ */
+@Tag("loadtest")
+@ActiveProfiles("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "logging.level.org.hibernate.SQL=info",
+        "data.generator.members=${loadtest.members:200000}",
+        "data.generator.teams=${loadtest.teams:1000}",
+        "data.generator.seed=${loadtest.seed:42}"
+})
+class SearchLoadTest {
+
+    private static final int RATE = Integer.getInteger("loadtest.rate", 200);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final int MEMBERS = Integer.getInteger("loadtest.members", 200_000);
+    private static final int TEAMS = Integer.getInteger("loadtest.teams", 1000);
+    private static final long SEED = Long.getLong("loadtest.seed", 42);
+    private static final int MAX_OUTSTANDING = 10_000;
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    @LocalServerPort int port;
+
+    /**
+     * 검색 조건 조합 (가중치). 팀은 인기 팀에 몰리게, 나이는 생성 분포의 중심 근처로
+     */
+    private final List<Scenario> scenarios = List.of(
+            new Scenario("v1-team", 30, r -> "/v1/members?teamName=team" + zipfRank(r)),
+            new Scenario("v1-common-username", 10, r -> "/v1/members?username=user" + r.nextInt(10_000)),
+            new Scenario("v1-username-prefix", 10, r -> "/v1/members?usernameStartsWith=member" + (1 + r.nextInt(999))),
+            new Scenario("v2-age-range", 25, r -> {
+                int age = 20 + r.nextInt(30);
+                return "/v2/members?ageGoe=" + age + "&ageLoe=" + (age + 5) + "&page=" + r.nextInt(5) + "&size=20";
+            }),
+            new Scenario("v3-team-age-sorted", 25, r -> "/v3/members?teamName=team" + zipfRank(r)
+                    + "&ageGoe=" + (20 + r.nextInt(30)) + "&sort=age,desc&page=" + r.nextInt(3) + "&size=20"));
+
+    @Test
+    public void searchEndpoints() throws Exception {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        scenarios.forEach(s -> stats.put(s.name(), new Stats()));
+        AtomicInteger outstanding = new AtomicInteger();
+        LongAdder skipped = new LongAdder();
+
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        SplittableRandom random = new SplittableRandom(SEED);
+        int totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        long intended = start;
+        while (intended < end) {
+            //포아송 도착: 간격은 평균 1/RATE 초의 지수분포
+            intended += (long) (-Math.log(1 - random.nextDouble()) / RATE * 1_000_000_000L);
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Scenario scenario = pick(random, totalWeight);
+            URI uri = URI.create("http://localhost:" + port + scenario.path().apply(random));
+            boolean measured = intended >= measureFrom;
+            Stats target = stats.get(scenario.name());
+            if (outstanding.incrementAndGet() > MAX_OUTSTANDING) {
+                outstanding.decrementAndGet();
+                skipped.increment();
+                continue;
+            }
+
+            long sentAt = intended;
+            client.sendAsync(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build(),
+                            HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        outstanding.decrementAndGet();
+                        if (measured) {
+                            target.record(System.nanoTime() - sentAt, error == null ? response.statusCode() : -1);
+                        }
+                    });
+        }
+
+        //남은 요청이 끝날 때까지 대기
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (outstanding.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+
+        writeReport(stats, skipped.sum());
+    }
+
+    private Scenario pick(SplittableRandom random, int totalWeight) {
+        int roll = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.weight();
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    //상위 팀일수록 자주 (1/k 근사: 균등 난수의 거듭제곱)
+    private static int zipfRank(SplittableRandom random) {
+        return (int) Math.min(TEAMS - 1, Math.floor(Math.pow(TEAMS, random.nextDouble())) - 1);
+    }
+
+    private void writeReport(Map<String, Stats> stats, long skipped) throws IOException {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rate", RATE);
+        config.put("warmupSeconds", WARMUP_SECONDS);
+        config.put("durationSeconds", DURATION_SECONDS);
+        config.put("members", MEMBERS);
+        config.put("teams", TEAMS);
+        config.put("seed", SEED);
+
+        Stats total = new Stats();
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        stats.forEach((name, s) -> {
+            endpoints.put(name, s.toReport());
+            total.add(s);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("generatedAt", Instant.now().toString());
+        report.put("label", System.getProperty("loadtest.label", ""));
+        report.put("config", config);
+        report.put("total", total.toReport());
+        report.put("skippedClientOverload", skipped);
+        report.put("scenarios", endpoints);
+
+        File file = new File("build/reports/loadtest/search-load.json");
+        file.getParentFile().mkdirs();
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.writeValue(file, report);
+        System.out.println(mapper.writeValueAsString(report));
+    }
+
+    private record Scenario(String name, int weight, Function<SplittableRandom, String> path) {
+    }
+
+    private static class Stats {
+
+        final Histogram latency = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(long elapsedNanos, int status) {
+            latency.recordValue(Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        void add(Stats other) {
+            latency.add(other.latency);
+            other.statuses.forEach((status, count) ->
+                    statuses.computeIfAbsent(status, s -> new LongAdder()).add(count.sum()));
+        }
+
+        Map<String, Object> toReport() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            long requests = latency.getTotalCount();
+            long ok = statuses.getOrDefault(200, new LongAdder()).sum();
+            report.put("requests", requests);
+            report.put("ok", ok);
+            report.put("throughputPerSecond", round((double) ok / DURATION_SECONDS));
+
+            Map<String, Long> byStatus = new TreeMap<>();
+            statuses.forEach((status, count) -> byStatus.put(status < 0 ? "io-error" : String.valueOf(status), count.sum()));
+            report.put("statuses", byStatus);
+
+            Map<String, Object> millis = new LinkedHashMap<>();
+            millis.put("p50", percentile(50));
+            millis.put("p90", percentile(90));
+            millis.put("p99", percentile(99));
+            millis.put("p999", percentile(99.9));
+            millis.put("max", round(latency.getMaxValue() / 1000.0));
+            millis.put("mean", round(latency.getMean() / 1000.0));
+            report.put("latencyMillis", millis);
+            return report;
+        }
+
+        private double percentile(double percentile) {
+            return round(latency.getValueAtPercentile(percentile) / 1000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
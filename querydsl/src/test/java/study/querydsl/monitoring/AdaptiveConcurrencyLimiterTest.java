@@ -0,0 +1,88 @@
+package study.querydsl.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void rejectsWhenLimitAndQueueAreFull() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0, 0);
+
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.acquire()).isFalse(); //대기열 0 -> 바로 거절
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release(MS, false);
+        assertThat(limiter.acquire()).isTrue();
+    }
+
+    @Test
+    public void queuedRequestGetsReleasedSlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10, 1, TimeUnit.SECONDS.toNanos(5));
+        assertThat(limiter.acquire()).isTrue();
+
+        Thread.ofVirtual().start(() -> {
+            sleep(50);
+            limiter.release(MS, false);
+        });
+        assertThat(limiter.acquire()).isTrue();
+    }
+
+    @Test
+    public void limitFollowsLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 0, 0);
+
+        //한도를 꽉 채운 상태에서 지연이 일정하면 한도가 늘어남
+        runSaturated(limiter, 50, 10 * MS);
+        int grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(20);
+
+        //지연이 평소의 몇 배로 늘면 한도가 줄어듦
+        acquireAll(limiter);
+        for (int i = 0; i < 5; i++) {
+            limiter.release(100 * MS, false);
+        }
+        int shrunk = limiter.getLimit();
+        assertThat(shrunk).isLessThan(grown);
+
+        //실패는 곱셈으로 줄임
+        limiter.release(MS, true);
+        assertThat(limiter.getLimit()).isLessThan(shrunk);
+    }
+
+    private static void runSaturated(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int i = 0; i < rounds; i++) {
+            int acquired = acquireAll(limiter);
+            for (int j = 0; j < acquired; j++) {
+                limiter.release(rttNanos, false);
+            }
+        }
+    }
+
+    private static int acquireAll(AdaptiveConcurrencyLimiter limiter) {
+        int acquired = 0;
+        try {
+            while (limiter.acquire()) {
+                acquired++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return acquired;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
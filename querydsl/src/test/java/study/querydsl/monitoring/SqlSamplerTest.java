@@ -0,0 +1,49 @@
+package study.querydsl.monitoring;
+
+import com.p6spy.engine.common.StatementInformation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlSamplerTest {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void keepsOnlySlowStatements() {
+        SqlSampler sampler = new SqlSampler(meterRegistry, Duration.ofMillis(100), 0, 4);
+
+        sampler.onAfterAnyExecute(statement("select fast"), Duration.ofMillis(1).toNanos(), null);
+        sampler.onAfterAnyExecute(statement("select slow"), Duration.ofMillis(150).toNanos(), null);
+        sampler.onAfterAnyExecute(statement("select broken"), 0, new SQLException("boom"));
+
+        //시간은 모든 statement를 기록
+        assertThat(meterRegistry.get("sql.statements").timer().count()).isEqualTo(3);
+        assertThat(sampler.samples()).extracting(SqlSampler.Sample::reason)
+                .containsExactly("error", "slow");
+    }
+
+    @Test
+    public void ringBufferKeepsNewest() {
+        SqlSampler sampler = new SqlSampler(meterRegistry, Duration.ZERO, 0, 4);
+        for (int i = 0; i < 10; i++) {
+            sampler.onAfterAnyExecute(statement("select " + i), 1, null);
+        }
+
+        List<SqlSampler.Sample> samples = sampler.samples();
+        assertThat(samples).extracting(SqlSampler.Sample::sql)
+                .containsExactly("select 9", "select 8", "select 7", "select 6");
+    }
+
+    private static StatementInformation statement(String sql) {
+        StatementInformation statement = new StatementInformation(null);
+        statement.setStatementQuery(sql);
+        return statement;
+    }
+}
@@ -0,0 +1,86 @@
+package study.querydsl.repository;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 테스트 중 실행된 쿼리를 모아 H2 EXPLAIN으로 실행 계획을 확인하는 인덱스 점검기
+ * - p6spy 리스너로 등록되어 바인딩 값이 채워진 SQL을 수집
+ * - WHERE 절에서 조건으로 쓰인 테이블이 tableScan(풀 스캔)되면 finding으로 보고
+ *   (조건 없는 findAll, 조인으로 PK 조회되는 테이블은 보고하지 않음)
+ * - querydsl/data-jpa 모듈에 같은 클래스가 있음 (각자 빌드되는 모듈이라 공유할 테스트 모듈이 없어서 복사). 수정할 때 함께 바꿀 것
+ */
+public class IndexAdvisor extends SimpleJdbcEventListener {
+
+    //FROM/JOIN "PUBLIC"."MEMBER" "M1_0" /* PUBLIC.MEMBER.tableScan */ (update/delete는 별칭 없음)
+    private static final Pattern TABLE_SCAN =
+            Pattern.compile("\"\\w+\"\\.\"(\\w+)\"(?: \"(\\w+)\")?\\s*/\\* [\\w.]+\\.tableScan \\*/");
+    //p6spy 기본 날짜 형식('2024-01-01T00:00:00.000+0000')은 H2가 읽지 못함 -> 오프셋을 떼고 공백 구분으로 바꿈 (실행 계획과 무관)
+    private static final Pattern TIMESTAMP_LITERAL =
+            Pattern.compile("'(\\d{4}-\\d{2}-\\d{2})T(\\d{2}:\\d{2}:\\d{2}(?:\\.\\d+)?)[+-]\\d{4}'");
+
+    private final Set<String> statements = ConcurrentHashMap.newKeySet();
+    private volatile boolean recording = true;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (!recording || e != null) {
+            return;
+        }
+        String sql = TIMESTAMP_LITERAL.matcher(statementInformation.getSqlWithValues().trim()).replaceAll("'$1 $2'");
+        String head = sql.toLowerCase(Locale.ROOT);
+        if (head.startsWith("select") || head.startsWith("update") || head.startsWith("delete")) {
+            statements.add(sql);
+        }
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    /**
+     * 수집한 쿼리를 EXPLAIN 해서 조건 컬럼에 인덱스가 없어 풀 스캔되는 쿼리 목록을 반환
+     */
+    public List<Finding> analyze(JdbcTemplate jdbcTemplate) {
+        recording = false; //EXPLAIN 자체는 수집하지 않음
+        try {
+            List<Finding> findings = new ArrayList<>();
+            for (String sql : statements) {
+                String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+                int where = plan.indexOf("WHERE");
+                if (where < 0) {
+                    continue;
+                }
+                String condition = plan.substring(where);
+                Matcher matcher = TABLE_SCAN.matcher(plan);
+                while (matcher.find()) {
+                    String alias = matcher.group(2);
+                    if (alias == null || condition.contains("\"" + alias + "\".")) {
+                        findings.add(new Finding(matcher.group(1), sql, plan));
+                    }
+                }
+            }
+            return findings;
+        } finally {
+            recording = true;
+        }
+    }
+
+    public record Finding(String table, String sql, String plan) {
+
+        @Override
+        public String toString() {
+            return "full scan on " + table + ": " + sql + "\n" + plan;
+        }
+    }
+}
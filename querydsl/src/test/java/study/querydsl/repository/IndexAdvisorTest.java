@@ -0,0 +1,92 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSeekCursor;
+import study.querydsl.dto.MemberSeekKey;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * repository / QueryDSL 동적 쿼리(usernameEq, teamNameEq, ageGoe, ageLoe)가 인덱스를 타는지 EXPLAIN으로 확인
+ * - 새 쿼리나 조건을 추가하면 여기에도 호출을 추가해서 인덱스 누락을 잡는다
+ */
+@SpringBootTest
+@Transactional
+class IndexAdvisorTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        IndexAdvisor indexAdvisor() {
+            return new IndexAdvisor();
+        }
+    }
+
+    @Autowired IndexAdvisor indexAdvisor;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManager em;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 100; i++) {
+            em.persist(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+        indexAdvisor.reset();
+    }
+
+    @Test
+    public void searchQueriesUseIndexes() {
+        MemberSearchCondition byUsername = new MemberSearchCondition();
+        byUsername.setUsername("member1");
+
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(30);
+        byAge.setAgeLoe(40);
+
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("teamB");
+        byTeam.setAgeGoe(35);
+
+        for (MemberSearchCondition condition : List.of(byUsername, byAge, byTeam)) {
+            memberJpaRepository.search(condition);
+            memberJpaRepository.searchByBuilder(condition);
+            memberRepository.search(condition);
+            memberRepository.searchPageSimple(condition, PageRequest.of(0, 3));
+            memberRepository.searchPageComplex(condition, PageRequest.of(0, 3));
+            memberRepository.searchPageComplex(condition, PageRequest.of(1, 3, Sort.by("username")));
+            String cursor = memberRepository.searchSeek(condition, MemberSeekKey.AGE, null, 2).getNextCursor();
+            if (cursor != null) {
+                memberRepository.searchSeek(condition, MemberSeekKey.AGE, MemberSeekCursor.decode(cursor, MemberSeekKey.AGE), 2);
+            }
+        }
+        memberJpaRepository.findByUserName("member1");
+        memberJpaRepository.findByUserName_Querydsl("member1");
+        memberRepository.findByUsername("member1");
+
+        List<IndexAdvisor.Finding> findings = indexAdvisor.analyze(jdbcTemplate);
+        assertThat(findings).as("filtered tables read by full scan (finding lists the SQL)").isEmpty();
+    }
+}
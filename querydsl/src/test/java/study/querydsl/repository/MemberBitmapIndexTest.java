@@ -0,0 +1,119 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 비트맵 인덱스의 건수가 DB 검색 결과 건수와 같은지 확인 (커밋 이벤트로 갱신되므로 데이터를 커밋)
+ */
+@SpringBootTest
+class MemberBitmapIndexTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberBitmapIndex bitmapIndex;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberJpaRepository memberJpaRepository;
+
+    TransactionTemplate tx;
+    TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    public void before() {
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("bitmapTeamA");
+            Team teamB = new Team("bitmapTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 30; i++) {
+                em.persist(new Member("bitmap" + i, i, i % 3 == 0 ? teamA : teamB));
+            }
+            em.persist(new Member("bitmapNoTeam", 15));
+        });
+        bitmapIndex.rebuild(); //앞선 테스트의 벌크 변경(이벤트 없음)을 버림
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("select m from Member m where m.username like 'bitmap%'", Member.class)
+                    .getResultList().forEach(em::remove);
+            em.createQuery("select t from Team t where t.name like 'bitmapTeam%'", Team.class)
+                    .getResultList().forEach(em::remove);
+        });
+    }
+
+    @Test
+    public void countsMatchDatabase() {
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(10);
+        byAge.setAgeLoe(19);
+
+        MemberSearchCondition byTeamAndAge = new MemberSearchCondition();
+        byTeamAndAge.setTeamName("bitmapTeamA");
+        byTeamAndAge.setAgeGoe(10);
+
+        MemberSearchCondition emptyRange = new MemberSearchCondition();
+        emptyRange.setAgeGoe(20);
+        emptyRange.setAgeLoe(10);
+
+        for (MemberSearchCondition condition : List.of(byAge, byTeamAndAge, emptyRange)) {
+            long expected = readOnlyTx.execute(status -> (long) memberJpaRepository.search(condition).size());
+            long cardinality = readOnlyTx.execute(status -> bitmapIndex.match(condition).getLongCardinality());
+            long count = readOnlyTx.execute(status -> memberRepository.searchCount(condition));
+            assertThat(cardinality).isEqualTo(expected);
+            assertThat(count).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void bulkUpdateBypassesIndexUntilRebuilt() throws Exception {
+        MemberSearchCondition old = new MemberSearchCondition();
+        old.setTeamName("bitmapTeamA");
+        old.setAgeGoe(90);
+
+        tx.executeWithoutResult(status -> em.createQuery(
+                        "update Member m set m.age = 95 where m.username in ('bitmap0', 'bitmap3')")
+                .executeUpdate());
+
+        //재적재를 기다리지 않아도 DB로 조회하므로 맞는 건수
+        long count = readOnlyTx.execute(status -> memberRepository.searchCount(old));
+        assertThat(count).isEqualTo(2);
+
+        bitmapIndex.awaitRebuilt();
+        long cardinality = readOnlyTx.execute(status -> bitmapIndex.match(old).getLongCardinality());
+        assertThat(cardinality).isEqualTo(2);
+    }
+
+    @Test
+    public void followsTeamChange() {
+        MemberSearchCondition teamA = new MemberSearchCondition();
+        teamA.setTeamName("bitmapTeamA");
+        long before = readOnlyTx.execute(status -> memberRepository.searchCount(teamA));
+
+        tx.executeWithoutResult(status -> {
+            Team team = em.createQuery("select t from Team t where t.name = 'bitmapTeamA'", Team.class).getSingleResult();
+            em.createQuery("select m from Member m where m.username = 'bitmap1'", Member.class)
+                    .getSingleResult().changeTeam(team);
+        });
+
+        long after = readOnlyTx.execute(status -> memberRepository.searchCount(teamA));
+        assertThat(after).isEqualTo(before + 1);
+    }
+}
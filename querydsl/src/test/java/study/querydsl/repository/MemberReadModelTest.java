@@ -0,0 +1,120 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 읽기 모델 결과가 DB 검색(MemberJpaRepository.search)과 같은지 확인
+ * - 커밋 이벤트로 갱신되므로 데이터를 커밋하고 applier가 반영할 때까지 기다림
+ */
+@SpringBootTest(properties = "member.read-model.enabled=true")
+class MemberReadModelTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberReadModel readModel;
+    @Autowired MemberJpaRepository memberJpaRepository;
+
+    TransactionTemplate tx;
+    TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    public void before() throws Exception {
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("modelTeamA");
+            Team teamB = new Team("modelTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            for (int i = 0; i < 20; i++) {
+                em.persist(new Member("model" + i, i * 5, i % 2 == 0 ? teamA : teamB));
+            }
+            em.persist(new Member("modelNoTeam", 30));
+        });
+        readModel.awaitApplied();
+    }
+
+    @AfterEach
+    public void after() throws Exception {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("select m from Member m where m.username like 'model%'", Member.class)
+                    .getResultList().forEach(em::remove);
+            em.createQuery("select t from Team t where t.name like 'modelTeam%'", Team.class)
+                    .getResultList().forEach(em::remove);
+        });
+        readModel.awaitApplied();
+    }
+
+    @Test
+    public void sameResultAsDatabase() {
+        assertThat(readModel.isReady()).isTrue();
+
+        MemberSearchCondition byTeamAndAge = new MemberSearchCondition();
+        byTeamAndAge.setTeamName("modelTeamB");
+        byTeamAndAge.setAgeGoe(20);
+        byTeamAndAge.setAgeLoe(70);
+
+        MemberSearchCondition byPrefix = new MemberSearchCondition();
+        byPrefix.setUsernameStartsWith("model1");
+
+        MemberSearchCondition byUsername = new MemberSearchCondition();
+        byUsername.setUsername("modelNoTeam");
+
+        for (MemberSearchCondition condition : List.of(byTeamAndAge, byPrefix, byUsername)) {
+            assertThat(memory(condition)).containsExactlyInAnyOrderElementsOf(database(condition));
+        }
+    }
+
+    @Test
+    public void followsCommittedChanges() throws Exception {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("select t from Team t where t.name = 'modelTeamA'", Team.class)
+                    .getSingleResult().setName("modelTeamRenamed");
+            em.remove(em.createQuery("select m from Member m where m.username = 'model2'", Member.class).getSingleResult());
+        });
+        readModel.awaitApplied();
+
+        MemberSearchCondition renamed = new MemberSearchCondition();
+        renamed.setTeamName("modelTeamRenamed");
+        assertThat(memory(renamed)).hasSize(9).extracting("username").doesNotContain("model2");
+        assertThat(memory(renamed)).containsExactlyInAnyOrderElementsOf(database(renamed));
+    }
+
+    @Test
+    public void reloadsAfterBulkUpdate() throws Exception {
+        tx.executeWithoutResult(status -> em.createQuery(
+                        "update Member m set m.age = m.age + 100 where m.username like 'model%'")
+                .executeUpdate());
+
+        MemberSearchCondition old = new MemberSearchCondition();
+        old.setAgeGoe(100);
+        old.setUsernameStartsWith("model");
+        readModel.awaitApplied(); //onBulkChange가 예약한 재적재까지
+        assertThat(memory(old)).hasSize(21);
+        assertThat(memory(old)).containsExactlyInAnyOrderElementsOf(database(old));
+    }
+
+    private List<MemberTeamDto> memory(MemberSearchCondition condition) {
+        return readOnlyTx.execute(status -> readModel.search(condition));
+    }
+
+    private List<MemberTeamDto> database(MemberSearchCondition condition) {
+        return readOnlyTx.execute(status -> memberJpaRepository.search(condition));
+    }
+}
@@ -5,12 +5,19 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberSeekCursor;
+import study.querydsl.dto.MemberSeekKey;
+import study.querydsl.dto.MemberSeekPage;
 import study.querydsl.dto.MemberTeamDto;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -68,4 +75,148 @@ class MemberRepositoryTest {
         assertThat(result).extracting("username").containsExactly("member4");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void searchPageTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i * 10, i % 2 == 0 ? teamA : teamB));
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(20);
+
+        //같은 모양(teamName + ageGoe)의 템플릿을 다른 값으로 재사용
+        Page<MemberTeamDto> simple = memberRepository.searchPageSimple(condition, PageRequest.of(0, 2));
+        assertThat(simple.getTotalElements()).isEqualTo(4); //20, 40, 60, 80
+        assertThat(simple.getContent()).hasSize(2);
+
+        condition.setAgeGoe(60);
+        Page<MemberTeamDto> complex = memberRepository.searchPageComplex(condition, PageRequest.of(0, 3));
+        assertThat(complex.getTotalElements()).isEqualTo(2);
+        assertThat(complex.getContent()).extracting("username").containsExactlyInAnyOrder("member6", "member8");
+    }
+
+    @Test
+    public void searchPageCountTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 6; i++) {
+            //팀 없는 회원도 섞음: 팀 조인을 뺀 count가 건수를 바꾸지 않아야 함
+            em.persist(new Member("member" + i, i * 10, i % 3 == 0 ? null : teamA));
+        }
+        long all = memberRepository.count();
+
+        //조건 없음
+        Page<MemberTeamDto> noCondition = memberRepository.searchPageComplex(new MemberSearchCondition(), PageRequest.of(0, 2));
+        assertThat(noCondition.getTotalElements()).isEqualTo(all);
+
+        //나이 조건만 -> team 조인 없이 count, 팀 없는 회원(member3)도 포함
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(20);
+        assertThat(memberRepository.searchPageComplex(byAge, PageRequest.of(0, 1)).getTotalElements())
+                .isEqualTo(memberRepository.search(byAge).size());
+
+        //팀 조건 -> inner join
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("teamA");
+        byTeam.setAgeGoe(20);
+        assertThat(memberRepository.searchPageSimple(byTeam, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(3); //20, 40, 50
+    }
+
+    @Test
+    public void searchSeekTest() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("seek" + i, i % 3 * 10, teamA)); //나이 0, 10, 20 중복
+        }
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        //age 순으로 3건씩 끝까지 넘기면 offset 페이징의 전체 결과와 같아야 함 (중복/누락 없음)
+        List<MemberTeamDto> seeked = new ArrayList<>();
+        String cursor = null;
+        MemberSeekPage page;
+        do {
+            page = memberRepository.searchSeek(condition, MemberSeekKey.AGE, MemberSeekCursor.decode(cursor, MemberSeekKey.AGE), 3);
+            seeked.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        assertThat(seeked).extracting("age").isSorted();
+        assertThat(seeked).extracting("memberId").doesNotHaveDuplicates();
+        assertThat(seeked).hasSize(10);
+
+        //다른 정렬 키로 발급된 커서는 거부
+        String ageCursor = memberRepository.searchSeek(condition, MemberSeekKey.AGE, null, 3).getNextCursor();
+        assertThatThrownBy(() -> MemberSeekCursor.decode(ageCursor, MemberSeekKey.ID))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void searchPageSortTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("sortB", 20, teamA));
+        em.persist(new Member("sortA", 20, teamB));
+        em.persist(new Member("sortC", 10, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+
+        Page<MemberTeamDto> byAgeDesc = memberRepository.searchPageComplex(condition,
+                PageRequest.of(0, 10, Sort.by(Sort.Order.desc("age"), Sort.Order.asc("username"))));
+        assertThat(byAgeDesc.getContent()).extracting("username").containsExactly("sortA", "sortB", "sortC");
+
+        Page<MemberTeamDto> byTeamName = memberRepository.searchPageSimple(condition,
+                PageRequest.of(0, 10, Sort.by("teamName")));
+        assertThat(byTeamName.getContent()).extracting("teamName").containsExactly("teamA", "teamB", "teamB");
+
+        //화이트리스트에 없는 속성은 거부
+        assertThatThrownBy(() -> MemberSearchSort.validate(Sort.by("team.id")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void searchBatchTest() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("batch" + i, i * 10, i % 2 == 0 ? teamA : teamB));
+        }
+
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("teamA");
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(40);
+        byAge.setAgeLoe(60);
+        MemberSearchCondition byName = new MemberSearchCondition();
+        byName.setUsername("batch3");
+        MemberSearchCondition none = new MemberSearchCondition();
+        none.setUsername("nobody");
+
+        List<MemberSearchCondition> conditions = List.of(byTeam, byAge, byName, none);
+        List<List<MemberTeamDto>> result = memberRepository.searchBatch(conditions, 100);
+
+        //조건별로 따로 검색한 결과와 같아야 함
+        assertThat(result).hasSize(4);
+        for (int i = 0; i < conditions.size(); i++) {
+            assertThat(result.get(i)).containsExactlyInAnyOrderElementsOf(memberRepository.search(conditions.get(i)));
+        }
+        assertThat(result.get(1)).extracting("username").containsExactly("batch4", "batch5", "batch6");
+        assertThat(result.get(3)).isEmpty();
+
+        //합집합이 maxRows를 넘으면 null (byTeam + byAge + byName = 7건)
+        assertThat(memberRepository.searchBatch(conditions, 6)).isNull();
+    }
+}
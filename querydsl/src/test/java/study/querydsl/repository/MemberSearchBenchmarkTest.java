@@ -0,0 +1,80 @@
+package study.querydsl.repository;
+
+import com.sun.management.ThreadMXBean;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+
+/**
+ * 검색 1회당 CPU 시간 / 힙 할당량 비교
+ * - before: MemberJpaRepository.search (요청마다 QueryDSL 식 트리 생성 + JPQL 직렬화)
+ * - after : MemberRepository.search (조건 모양별 캐시된 JPQL 템플릿에 바인딩만)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search_bench;DB_CLOSE_DELAY=-1",
+        "decorator.datasource.p6spy.enable-logging=false",
+        "logging.level.org.hibernate.SQL=info"
+})
+@Transactional(readOnly = true)
+class MemberSearchBenchmarkTest {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    @Autowired EntityManager em;
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired MemberRepository memberRepository;
+
+    MemberSearchCondition condition;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 20; i++) {
+            em.persist(new Member("member" + i, i, teamA));
+        }
+        em.flush();
+        em.clear();
+
+        condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(5);
+        condition.setAgeLoe(15);
+    }
+
+    @Test
+    public void search() {
+        measure("querydsl(build each time)", c -> memberJpaRepository.search(c));
+        measure("cached template", c -> memberRepository.search(c));
+    }
+
+    private void measure(String name, Consumer<MemberSearchCondition> search) {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            search.accept(condition);
+        }
+
+        long cpuBefore = threadMXBean.getCurrentThreadCpuTime();
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            search.accept(condition);
+        }
+        long cpu = threadMXBean.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("[search] %-26s cpu/search=%.1fus alloc/search=%dB%n",
+                name, cpu / 1_000.0 / ITERATIONS, allocated / ITERATIONS);
+    }
+}
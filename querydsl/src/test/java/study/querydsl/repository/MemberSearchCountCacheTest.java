@@ -0,0 +1,66 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.event.MemberChange;
+import study.querydsl.event.MemberChange.MemberState;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberSearchCountCacheTest {
+
+    AtomicInteger queries = new AtomicInteger();
+
+    @Test
+    public void cachesByNormalizedCondition() {
+        MemberSearchCountCache cache = new MemberSearchCountCache(60, 10);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setUsername("");
+
+        MemberSearchCondition same = new MemberSearchCondition();
+        same.setTeamName("teamA");
+
+        assertThat(cache.get(condition, this::count)).isEqualTo(1);
+        assertThat(cache.get(same, this::count)).isEqualTo(1); //공백 username == 조건 없음
+        assertThat(queries.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidatedByMembershipChanges() {
+        MemberSearchCountCache cache = new MemberSearchCountCache(60, 10);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        cache.get(condition, this::count);
+
+        //검색 필드가 그대로인 수정은 무효화하지 않음
+        MemberState state = new MemberState("member1", 10, 1L);
+        cache.onMemberChange(new MemberChange(MemberChange.Type.UPDATE, 1L, state, state));
+        assertThat(cache.get(condition, this::count)).isEqualTo(1);
+
+        //팀 변경
+        cache.onMemberChange(new MemberChange(MemberChange.Type.UPDATE, 1L, state, new MemberState("member1", 10, 2L)));
+        assertThat(cache.get(condition, this::count)).isEqualTo(2);
+
+        //추가
+        cache.onMemberChange(new MemberChange(MemberChange.Type.INSERT, 2L, null, state));
+        assertThat(cache.get(condition, this::count)).isEqualTo(3);
+    }
+
+    @Test
+    public void expiresAfterTtl() {
+        MemberSearchCountCache cache = new MemberSearchCountCache(0, 10);
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeLoe(30);
+
+        cache.get(condition, this::count);
+        cache.get(condition, this::count);
+        assertThat(queries.get()).isEqualTo(2);
+    }
+
+    private long count() {
+        return queries.incrementAndGet();
+    }
+}
@@ -0,0 +1,110 @@
+package study.querydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.dto.MemberTeamDto;
+import study.querydsl.entity.Member;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인덱스는 커밋 이벤트로 갱신되므로 데이터를 커밋하고, readOnly 트랜잭션에서 검색
+ */
+@SpringBootTest
+class MemberUsernameIndexTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberUsernameIndex usernameIndex;
+    @Autowired MemberRepository memberRepository;
+
+    TransactionTemplate tx;
+    TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    public void before() {
+        tx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("gramAlice", 10));
+            em.persist(new Member("gramAlbert", 20));
+            em.persist(new Member("gramBob", 30));
+            em.persist(new Member("gram_50%", 40));
+        });
+    }
+
+    @AfterEach
+    public void after() {
+        tx.executeWithoutResult(status -> memberRepository.findAll().stream()
+                .filter(m -> m.getUsername().startsWith("gram"))
+                .forEach(em::remove));
+    }
+
+    @Test
+    public void startsWithAndContains() {
+        assertThat(search(startsWith("gramAl"))).containsExactlyInAnyOrder("gramAlice", "gramAlbert");
+        assertThat(search(contains("ice"))).containsExactly("gramAlice");
+        assertThat(search(contains("_50%"))).containsExactly("gram_50%"); //LIKE 특수문자는 이스케이프
+        assertThat(search(contains("zzz"))).isEmpty();
+
+        //후보 id는 인덱스에서 바로 나옴
+        assertThat(usernameIndex.candidates(contains("Bob"))).hasSize(1);
+        assertThat(usernameIndex.candidates(contains("zzz"))).isEmpty();
+        //트라이그램이 없는 짧은 질의어는 인덱스로 좁히지 못함 -> LIKE만
+        assertThat(usernameIndex.candidates(contains("Al"))).isNull();
+        assertThat(search(contains("Al"))).containsExactlyInAnyOrder("gramAlice", "gramAlbert");
+    }
+
+    @Test
+    public void renameUpdatesIndex() {
+        tx.executeWithoutResult(status -> em.createQuery("select m from Member m where m.username = 'gramBob'", Member.class)
+                .getSingleResult()
+                .setUsername("gramRobert"));
+
+        assertThat(search(contains("Bob"))).isEmpty();
+        assertThat(usernameIndex.candidates(contains("Bob"))).isEmpty();
+        assertThat(search(contains("bert"))).containsExactlyInAnyOrder("gramAlbert", "gramRobert");
+    }
+
+    @Test
+    public void bulkRenameFallsBackToLikeUntilRebuilt() throws Exception {
+        tx.executeWithoutResult(status -> em.createQuery(
+                        "update Member m set m.username = 'gramRobin' where m.username = 'gramBob'")
+                .executeUpdate());
+
+        //재적재를 기다리지 않아도 찾음 (재적재 전에는 후보를 내지 않고 LIKE로 검색)
+        assertThat(search(contains("Robin"))).containsExactly("gramRobin");
+
+        usernameIndex.awaitRebuilt();
+        assertThat(usernameIndex.candidates(contains("Robin"))).hasSize(1);
+        assertThat(usernameIndex.candidates(contains("Bob"))).isEmpty();
+    }
+
+    private List<String> search(MemberSearchCondition condition) {
+        return readOnlyTx.execute(status -> memberRepository.search(condition)).stream()
+                .map(MemberTeamDto::getUsername)
+                .toList();
+    }
+
+    private static MemberSearchCondition startsWith(String prefix) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernameStartsWith(prefix);
+        return condition;
+    }
+
+    private static MemberSearchCondition contains(String infix) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsernameContains(infix);
+        return condition;
+    }
+}
@@ -0,0 +1,53 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.dto.MemberSearchCondition;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class QueryBudgetTest {
+
+    @Autowired MemberJpaRepository memberJpaRepository;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void exhaustedBudgetStopsQueries() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+
+        try (QueryBudget.Binding ignored = QueryBudget.bind(QueryBudget.of(Duration.ZERO))) {
+            //QueryDSL JPAQuery
+            assertThatThrownBy(() -> memberJpaRepository.search(condition))
+                    .isInstanceOf(QueryTimeoutException.class);
+            //미리 컴파일한 검색 쿼리
+            assertThatThrownBy(() -> memberRepository.searchContent(condition, PageRequest.of(0, 10)))
+                    .isInstanceOf(QueryTimeoutException.class);
+        }
+
+        //예산이 풀리면 다시 실행됨
+        assertThat(memberJpaRepository.search(condition)).isNotNull();
+    }
+
+    @Test
+    public void cancelledBudgetStopsQueries() {
+        QueryBudget budget = QueryBudget.of(Duration.ofMinutes(1));
+        try (QueryBudget.Binding ignored = QueryBudget.bind(budget)) {
+            assertThat(memberJpaRepository.search(new MemberSearchCondition())).isNotNull();
+
+            budget.cancel();
+            assertThat(budget.isCancelled()).isTrue();
+            assertThatThrownBy(() -> memberJpaRepository.search(new MemberSearchCondition()))
+                    .isInstanceOf(QueryTimeoutException.class);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package study.querydsl.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 생성기는 커밋 이벤트 없이 JDBC로 넣으므로 메모리 인덱스가 모르는 행이 남지 않게 끝나면 JDBC로 지움
+ */
+@SpringBootTest
+class DataGeneratorTest {
+
+    @Autowired DataGenerator dataGenerator;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    List<DataGenerator.Result> generated = new ArrayList<>();
+
+    @AfterEach
+    public void after() {
+        for (DataGenerator.Result result : generated) {
+            jdbcTemplate.update("delete from member where member_id between ? and ?",
+                    result.firstMemberId(), result.firstMemberId() + result.members() - 1);
+            jdbcTemplate.update("delete from team where team_id between ? and ?",
+                    result.firstTeamId(), result.firstTeamId() + result.teams() - 1);
+        }
+    }
+
+    @Test
+    public void generatesSkewedDataInParallelChunks() {
+        DataGenerator.Result result = generate(spec(7));
+
+        assertThat(count("select count(*) from member where member_id between ? and ?", result)).isEqualTo(5000);
+        assertThat(count("select count(distinct team_id) from member where member_id between ? and ?", result))
+                .isLessThanOrEqualTo(50);
+
+        //Zipf: 1순위 팀이 가장 큼
+        List<Long> teamSizes = jdbcTemplate.queryForList(
+                "select count(*) from member where member_id between ? and ? and team_id is not null"
+                        + " group by team_id order by count(*) desc",
+                Long.class, result.firstMemberId(), result.firstMemberId() + result.members() - 1);
+        Long firstTeamSize = jdbcTemplate.queryForObject("select count(*) from member where team_id = ?",
+                Long.class, result.firstTeamId());
+        assertThat(firstTeamSize).isEqualTo(teamSizes.get(0));
+
+        //이름 중복
+        assertThat(count("select count(distinct username) from member where member_id between ? and ?", result))
+                .isLessThan(5000);
+    }
+
+    @Test
+    public void sameSeedSameData() {
+        List<Map<String, Object>> first = rows(generate(spec(11)));
+        List<Map<String, Object>> second = rows(generate(spec(11)));
+        List<Map<String, Object>> other = rows(generate(spec(12)));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+    }
+
+    private DataGeneratorProperties spec(long seed) {
+        DataGeneratorProperties spec = new DataGeneratorProperties();
+        spec.setMembers(5000);
+        spec.setTeams(50);
+        spec.setTeamSkew(1.2);
+        spec.setUsernameCollisionRate(0.3);
+        spec.setCommonUsernames(100);
+        spec.setNoTeamRate(0.05);
+        spec.setSeed(seed);
+        spec.setChunkSize(700);
+        spec.setBatchSize(100);
+        spec.setParallelism(4);
+        return spec;
+    }
+
+    private DataGenerator.Result generate(DataGeneratorProperties spec) {
+        DataGenerator.Result result = dataGenerator.generate(spec);
+        generated.add(result);
+        return result;
+    }
+
+    private long count(String sql, DataGenerator.Result result) {
+        return jdbcTemplate.queryForObject(sql, Long.class,
+                result.firstMemberId(), result.firstMemberId() + result.members() - 1);
+    }
+
+    //id 구간 기준 상대 값으로 비교 (회원 순서, 나이, 팀 순위, id가 들어가지 않은 이름)
+    private List<Map<String, Object>> rows(DataGenerator.Result result) {
+        return jdbcTemplate.queryForList(
+                "select member_id - ? as seq, age, team_id - ? as team_rank,"
+                        + " case when username like 'user%' then username else null end as common_name"
+                        + " from member where member_id between ? and ? order by member_id",
+                result.firstMemberId(), result.firstTeamId(),
+                result.firstMemberId(), result.firstMemberId() + result.members() - 1);
+    }
+}
@@ -0,0 +1,95 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.MemberSearchCondition;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.function.Supplier;
+
+/**
+ * searchPageComplex 응답 시간: content -> count 순차 실행 vs count 병렬 실행
+ * - 넓은 조건(나이 범위)으로 content/count 모두 많은 행을 읽게 함
+ * - total 캐시는 ttl 0으로 꺼서 매번 count 쿼리가 실행되도록 함
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:count_bench;DB_CLOSE_DELAY=-1",
+        "decorator.datasource.p6spy.enable-logging=false",
+        "logging.level.org.hibernate.SQL=info",
+        "member.search.count-cache.ttl-seconds=0"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchCountBenchmarkTest {
+
+    private static final int MEMBERS = 200_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberService memberService;
+
+    TransactionTemplate readOnlyTx;
+    MemberSearchCondition condition;
+    Pageable pageable = PageRequest.of(3, 20);
+
+    @BeforeAll
+    public void before() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team[] teams = new Team[100];
+            for (int i = 0; i < teams.length; i++) {
+                teams[i] = new Team("team" + i);
+                em.persist(teams[i]);
+            }
+            for (int i = 0; i < MEMBERS; i++) {
+                em.persist(new Member("member" + i, i % 100, teams[i % teams.length]));
+                if (i % 1_000 == 0) {
+                    em.flush();
+                    em.clear();
+                    for (int t = 0; t < teams.length; t++) {
+                        teams[t] = em.getReference(Team.class, teams[t].getId());
+                    }
+                }
+            }
+        });
+
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+        condition.setAgeLoe(80);
+    }
+
+    @Test
+    public void searchPageComplex() {
+        measure("sequential", () -> readOnlyTx.execute(s -> memberRepository.searchPageComplex(condition, pageable)));
+        measure("parallel count", () -> memberService.searchPageComplex(condition, pageable));
+    }
+
+    private void measure(String name, Supplier<?> search) {
+        for (int i = 0; i < WARMUP; i++) {
+            search.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            search.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("[searchPageComplex] %-16s avg=%.2fms%n", name, elapsed / 1_000_000.0 / ITERATIONS);
+    }
+}
@@ -0,0 +1,129 @@
+package study.querydsl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    SingleFlight<String, Integer> flights = new SingleFlight<>("test", meterRegistry);
+    AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    public void concurrentCallsShareOneExecution() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> flights.execute("key", () -> {
+                    await(release);
+                    return executions.incrementAndGet();
+                }), executor));
+            }
+
+            //leader가 실행 중인 동안 나머지가 모두 합류할 때까지 대기
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (count("shared") < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (CompletableFuture<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        }
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(count("shared")).isEqualTo(callers - 1);
+
+        //끝난 결과는 보관하지 않음
+        assertThat(flights.execute("key", executions::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    public void failureIsNotRemembered() {
+        assertThatThrownBy(() -> flights.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(flights.execute("key", executions::incrementAndGet)).isEqualTo(1);
+    }
+
+    @Test
+    public void leaderOnlyFailureIsRetriedByFollowers() throws Exception {
+        SingleFlight<String, Integer> retrying = new SingleFlight<>("test", meterRegistry,
+                e -> e instanceof IllegalStateException);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> retrying.execute("key", () -> {
+                await(release);
+                throw new IllegalStateException("leader budget exceeded");
+            }), executor);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (count("executed") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            CompletableFuture<Integer> follower = CompletableFuture.supplyAsync(
+                    () -> retrying.execute("key", executions::incrementAndGet), executor);
+            while (count("shared") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            //leader는 실패, follower는 직접 실행해서 성공
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(count("retried")).isEqualTo(1);
+    }
+
+    @Test
+    public void followerWaitsAtMostMaxWait() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Integer> leader = CompletableFuture.supplyAsync(() -> flights.execute("key", () -> {
+                await(release);
+                return executions.incrementAndGet();
+            }), executor);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (count("executed") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            //leader가 끝나지 않아도 follower는 자기 maxWait에서 포기
+            assertThatThrownBy(() -> flights.execute("key", Duration.ofMillis(50), executions::incrementAndGet))
+                    .isInstanceOf(SingleFlight.WaitTimeoutException.class);
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        }
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(count("timed_out")).isEqualTo(1);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("test.calls").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
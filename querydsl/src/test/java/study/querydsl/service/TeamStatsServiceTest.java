@@ -0,0 +1,91 @@
+package study.querydsl.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.dto.TeamStatsDto;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 요약 테이블은 커밋 이벤트로 비동기 갱신되므로 데이터를 커밋하고 applier가 끝날 때까지 기다림
+ */
+@SpringBootTest
+class TeamStatsServiceTest {
+
+    @Autowired EntityManager em;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired TeamStatsService teamStatsService;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    public void before() throws Exception {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            Team teamA = new Team("statsTeamA");
+            Team teamB = new Team("statsTeamB");
+            em.persist(teamA);
+            em.persist(teamB);
+            em.persist(new Member("stats1", 10, teamA));
+            em.persist(new Member("stats2", 20, teamA));
+            em.persist(new Member("stats3", 30, teamB));
+            em.persist(new Member("stats4", 40, teamB));
+        });
+        teamStatsService.awaitApplied();
+    }
+
+    @AfterEach
+    public void after() throws Exception {
+        tx.executeWithoutResult(status -> {
+            em.createQuery("select m from Member m where m.username like 'stats%'", Member.class)
+                    .getResultList().forEach(em::remove);
+            em.createQuery("select t from Team t where t.name like 'statsTeam%'", Team.class)
+                    .getResultList().forEach(em::remove);
+        });
+        teamStatsService.awaitApplied();
+    }
+
+    @Test
+    public void incrementalUpdates() throws Exception {
+        //QuerydslBasicTest.group()/aggregation()과 같은 값
+        assertThat(stats()).extracting("teamName", "memberCount", "ageSum", "ageAvg", "ageMax", "ageMin")
+                .containsExactly(
+                        tuple("statsTeamA", 2L, 30L, 15.0, 20, 10),
+                        tuple("statsTeamB", 2L, 70L, 35.0, 40, 30));
+
+        //teamB의 최대 나이 회원을 teamA로 이동 -> teamB는 다시 계산, teamA는 추가분만 반영
+        tx.executeWithoutResult(status -> {
+            Team teamA = em.createQuery("select t from Team t where t.name = 'statsTeamA'", Team.class).getSingleResult();
+            em.createQuery("select m from Member m where m.username = 'stats4'", Member.class)
+                    .getSingleResult().changeTeam(teamA);
+        });
+        teamStatsService.awaitApplied();
+
+        assertThat(stats()).extracting("teamName", "memberCount", "ageSum", "ageMax", "ageMin")
+                .containsExactly(
+                        tuple("statsTeamA", 3L, 70L, 40, 10),
+                        tuple("statsTeamB", 1L, 30L, 30, 30));
+
+        //전체 재계산 결과도 같아야 함
+        List<TeamStatsDto> incremental = stats();
+        teamStatsService.reconcile();
+        assertThat(stats()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(incremental);
+    }
+
+    private List<TeamStatsDto> stats() {
+        return teamStatsService.findAll().stream()
+                .filter(s -> s.getTeamName() != null && s.getTeamName().startsWith("statsTeam"))
+                .toList();
+    }
+}